@@ -4,10 +4,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.helpers.MarkerIgnoringBase;
-import org.slf4j.helpers.MessageFormatter;
 
 import android.util.Log;
 
@@ -33,7 +35,9 @@ import android.util.Log;
  * <p>
  * Note also that we check isDebugEnabled with every call despite this adding
  * possible overhead since a great deal of legacy code does not check the
- * logging level first.
+ * logging level first. Code which logs primitives in hot paths can use the
+ * overloads of {@link PrimitiveLogger} to avoid boxing them before this
+ * check.
  * </p>
  * <p>
  * To configure this logger you can include an SLF4J.properties file in your apk
@@ -64,6 +68,45 @@ import android.util.Log;
  * been at the start of the log line.
  * </p>
  * <p>
+ * Operations can be timed with named {@link Stopwatch} instances obtained
+ * from {@link #stopwatch(String)}. Durations are collected in a histogram
+ * and a percentile summary is logged at the level of the logger every:<br/>
+ * timing.report.interval=&lt;milliseconds&gt;<br/>
+ * which defaults to 60000. Use 0 to only report when asked to.
+ * </p>
+ * <p>
+ * Every message can be given a prefix with the time, thread, level, tag or
+ * MDC values using:<br/>
+ * layout.pattern=&lt;pattern&gt;<br/>
+ * for instance "%d{HH:mm:ss.SSS} [%-12.12t] %-5p %c: ". See
+ * {@link PatternLayout} for all conversions.
+ * </p>
+ * <p>
+ * To cut the cost and volume of logging, messages can be logged as a
+ * template id followed by the arguments using:<br/>
+ * tokenized=true<br/>
+ * This needs the SLF4J.dictionary generated from your sources by the
+ * dictionary build target next to the properties file. See
+ * {@link TemplateTokens} for details.
+ * </p>
+ * <p>
+ * Sensitive text can be masked in every message using patterns:<br/>
+ * redact.pattern.&lt;name&gt;=&lt;regular expression&gt;<br/>
+ * See {@link Redactor} for details.
+ * </p>
+ * <p>
+ * Noisy statements can be limited to every Nth event or to at most one
+ * event per interval with {@link #every(int)} and
+ * {@link #atMostEvery(long, TimeUnit)}.
+ * </p>
+ * <p>
+ * Events can also be streamed in batches to a log collector listening on a
+ * socket using:<br/>
+ * collector.address=&lt;host&gt;:&lt;port&gt;<br/>
+ * See {@link CollectorSink} for the remaining collector.* options and the
+ * format of the stream.
+ * </p>
+ * <p>
  * We search for this properties file in the root of your JAR.
  * </p>
  * <p>
@@ -73,7 +116,8 @@ import android.util.Log;
  * is perfect for a production environment.
  * </p>
  **/
-public class AndroidLogger extends MarkerIgnoringBase {
+public class AndroidLogger extends MarkerIgnoringBase
+		implements PrimitiveLogger {
 
 	/** The name of the properties file. */
 	private static final String CONFIG_FILE_NAME = "SLF4J.properties";
@@ -100,38 +144,63 @@ public class AndroidLogger extends MarkerIgnoringBase {
 	private final String tag;
 
 	/**
-	 * In prepend mode we use this.
+	 * The resolved tag, prepend text and levels this logger emits with.
 	 */
-	private final String prependTag;
+	private final transient LogEmitter emitter;
 
 	/**
 	 * The level this logger is working at.
 	 */
 	private final int level;
 
+	/**
+	 * The stopwatches created for this logger by name.
+	 */
+	private final transient Map<String, Stopwatch> stopwatches =
+			new HashMap<String, Stopwatch>();
+
 	/** Trace log level. */
-	private static final int TRACE = 1;
+	static final int TRACE = 1;
 	/** Debug log level. */
-	private static final int DEBUG = 2;
+	static final int DEBUG = 2;
 	/** Info log level. */
-	private static final int INFO = 3;
+	static final int INFO = 3;
 	/** Warn log level. */
-	private static final int WARN = 4;
+	static final int WARN = 4;
 	/** Error log level. */
-	private static final int ERROR = 5;
+	static final int ERROR = 5;
 	/** Disabled log level. */
-	private static final int DISABLED = 0;
+	static final int DISABLED = 0;
 	/** The default log level is DISABLED. */
 	private static final int DEFAULT_LOG_LEVEL = DISABLED;
 	/** Log Levels > ERROR are invalid. */
 	private static final int INVALID_LEVEL = ERROR + 1;
 
+	/*
+	 * The settings below are only written by the static initializer. Class
+	 * initialization happens before any use of the class by another thread,
+	 * so they need not be volatile. They are all declared before the
+	 * initializer so their initial values do not overwrite the loaded ones.
+	 */
+
 	/** The default level for all loggers. */
 	private static int sDefaultLevel = DEFAULT_LOG_LEVEL;
 	/** A static forced tag so all logging goes to the same tag. */
 	private static String sForceTag = null;
 	/** Force the real tag to prepend to the message. */
 	private static boolean sForcePrependTag = false;
+	/** The default interval between stopwatch reports in milliseconds. */
+	private static final long DEFAULT_TIMING_INTERVAL = 60000;
+	/** The interval between stopwatch reports in milliseconds. */
+	private static long sTimingInterval = DEFAULT_TIMING_INTERVAL;
+	/** The layout rendering a prefix for every message or null. */
+	private static PatternLayout sLayout = null;
+	/** The templates logged as tokens or null if not tokenized. */
+	private static TemplateTokens sTokens = null;
+	/** The redactor masking sensitive text or null. */
+	private static Redactor sRedactor = null;
+	/** The sink receiving events in addition to the Android log or null. */
+	private static LogSink sSink = null;
 
 	/** String equivalents of log levels. */
 	private static final String[] LEVEL_NAMES = { "disabled", "trace", "debug",
@@ -156,6 +225,15 @@ public class AndroidLogger extends MarkerIgnoringBase {
 	 * force.tag.prepend.
 	 */
 	private static final String FORCE_PREPEND_TAG = "force.tag.prepend";
+	/**
+	 * Property for the interval between stopwatch reports in milliseconds:
+	 * timing.report.interval.
+	 */
+	private static final String TIMING_INTERVAL = "timing.report.interval";
+	/** Property turning on tokenized logging: tokenized. */
+	private static final String TOKENIZED = "tokenized";
+	/** Property with the pattern for a message prefix: layout.pattern. */
+	private static final String LAYOUT_PATTERN = "layout.pattern";
 
 	/**
 	 * Should we ignore android level?
@@ -219,6 +297,45 @@ public class AndroidLogger extends MarkerIgnoringBase {
 											+ sForcePrependTag);
 							continue;
 						}
+						if (name.equals(TIMING_INTERVAL)) {
+							try {
+								sTimingInterval = Long.parseLong(
+										props.getProperty(name).trim());
+							} catch (NumberFormatException e) {
+								Log.w(SLF4J_TAG, "Invalid timing interval: '"
+										+ props.getProperty(name)
+										+ "'. Using default.");
+							}
+							Log.d(SLF4J_TAG, "Set timing interval to: "
+									+ sTimingInterval);
+							continue;
+						}
+						if (name.equals(TOKENIZED)) {
+							if (Boolean.parseBoolean(props.getProperty(name))) {
+								sTokens = loadTokens();
+							}
+							continue;
+						}
+						if (name.equals(LAYOUT_PATTERN)) {
+							try {
+								sLayout = PatternLayout.compile(
+										props.getProperty(name));
+								Log.d(SLF4J_TAG, "Set layout pattern to: "
+										+ props.getProperty(name));
+							} catch (IllegalArgumentException e) {
+								Log.w(SLF4J_TAG, "Invalid layout pattern: "
+										+ e.getMessage());
+							}
+							continue;
+						}
+						if (name.startsWith(Redactor.PROPERTY_PREFIX)) {
+							// Read by the redactor once all are known.
+							continue;
+						}
+						if (name.startsWith(CollectorSink.PROPERTY_PREFIX)) {
+							// Read by the sink once all properties are known.
+							continue;
+						}
 						if (name.equals(ANDROID_LEVEL_CHECK)) {
 							ignoreAndroidLevel = !Boolean.parseBoolean(props
 									.getProperty(name));
@@ -248,6 +365,8 @@ public class AndroidLogger extends MarkerIgnoringBase {
 									+ "'. Using default.");
 						}
 					}
+					sRedactor = Redactor.configure(props);
+					sSink = CollectorSink.configure(props);
 				} catch (IOException e) {
 					Log.e(SLF4J_TAG, "Error while loading properties: "
 							+ e.getMessage());
@@ -258,6 +377,37 @@ public class AndroidLogger extends MarkerIgnoringBase {
 		}
 	}
 
+	/**
+	 * Loads the template dictionary for tokenized logging.
+	 * @return the templates or null if there is no usable dictionary
+	 */
+	private static TemplateTokens loadTokens() {
+		InputStream in = AndroidLogger.class.getClassLoader()
+				.getResourceAsStream(TemplateTokens.DICTIONARY_FILE_NAME);
+		if (in == null) {
+			Log.w(SLF4J_TAG, "No template dictionary found: "
+					+ TemplateTokens.DICTIONARY_FILE_NAME
+					+ ". Not tokenizing.");
+			return null;
+		}
+		try {
+			TemplateTokens tokens = TemplateTokens.load(in);
+			Log.d(SLF4J_TAG, "Tokenizing " + tokens.size() + " templates.");
+			return tokens;
+		} catch (IOException e) {
+			Log.e(SLF4J_TAG, "Error while loading template dictionary: "
+					+ e.getMessage());
+			return null;
+		} finally {
+			try {
+				in.close();
+			} catch (IOException e) {
+				Log.w(SLF4J_TAG, "Error closing template dictionary: "
+						+ e.getMessage());
+			}
+		}
+	}
+
 	/**
 	 * Package access allows only {@link AndroidLoggerFactory} to instantiate
 	 * AndroidLogger instances.
@@ -294,6 +444,7 @@ public class AndroidLogger extends MarkerIgnoringBase {
 			this.tag = loggerTag;
 		}
 
+		String prependTag = null;
 		if (sForcePrependTag) {
 			StringBuffer spaces = new StringBuffer(this.tag);
 
@@ -303,10 +454,8 @@ public class AndroidLogger extends MarkerIgnoringBase {
 			spaces.append(':');
 			spaces.append(' ');
 
-			this.prependTag = spaces.toString();
-			Log.d(SLF4J_TAG, "Prepend Tag: " + this.prependTag);
-		} else {
-			this.prependTag = "";
+			prependTag = spaces.toString();
+			Log.d(SLF4J_TAG, "Prepend Tag: " + prependTag);
 		}
 
 		// Now to figure out what level this should be at
@@ -328,272 +477,678 @@ public class AndroidLogger extends MarkerIgnoringBase {
 		}
 		Log.d(SLF4J_TAG, "Level for: " + this.tag + " set to: "
 				+ LEVEL_NAMES[this.level]);
+
+		// Resolve the global settings once so logging need not check them.
+		String logTag = this.tag;
+		if (sForceTag != null) {
+			logTag = sForceTag;
+		}
+		this.emitter = new LogEmitter(logTag, this.tag, prependTag, sLayout,
+				sTokens, sRedactor, this.level, !ignoreAndroidLevel, sSink);
 	}
 
 	/**
-	 * @param message the message to prepend to
-	 * @return the string with possible tag prepened.
+	 * Returns the stopwatch with the given name, creating it on first use.
+	 * Callers should hold on to the result since this lookup synchronizes.
+	 * @param name the name of the stopwatch
+	 * @return the stopwatch reporting through this logger
 	 */
-	private String getPrepend(final String message) {
-		if (sForcePrependTag) {
-			return prependTag + message;
+	public final Stopwatch stopwatch(final String name) {
+		synchronized (stopwatches) {
+			Stopwatch stopwatch = stopwatches.get(name);
+			if (stopwatch == null) {
+				stopwatch = new Stopwatch(this, name, sTimingInterval);
+				stopwatches.put(name, stopwatch);
+			}
+			return stopwatch;
 		}
-		return message;
 	}
 
 	/**
-	 * @param message the message to format
-	 * @param parameter the parameter to the message
-	 * @return the formatted message possibly with tag prepended.
+	 * Returns a new call site which logs only every Nth event. Keep the
+	 * result in a field since every call creates a separate call site.
+	 * @param count log one event out of this many
+	 * @return the rate limited view of this logger
 	 */
-	private String getPrepend(final String message, final Object parameter) {
-		String formatted =
-				MessageFormatter.format(message, parameter).getMessage();
-		return getPrepend(formatted);
+	public final RateLimitedLogger every(final int count) {
+		if (count <= 0) {
+			throw new IllegalArgumentException("Count must be positive: "
+					+ count);
+		}
+		return new RateLimitedLogger(emitter, count, 0);
 	}
 
 	/**
-	 * @param message the message to format
-	 * @param parameters the parameters for the message
-	 * @return the formatted message with possible prepended tag
+	 * Returns a new call site which logs at most one event per interval.
+	 * Keep the result in a field since every call creates a separate call
+	 * site.
+	 * @param interval the shortest time between logged events
+	 * @param unit the unit of the interval
+	 * @return the rate limited view of this logger
 	 */
-	private String getPrepend(final String message, final Object[] parameters) {
-		String formatted =
-				MessageFormatter.arrayFormat(message, parameters).getMessage();
-		return getPrepend(formatted);
+	public final RateLimitedLogger atMostEvery(final long interval,
+			final TimeUnit unit) {
+		if (interval <= 0) {
+			throw new IllegalArgumentException("Interval must be positive: "
+					+ interval);
+		}
+		return new RateLimitedLogger(emitter, 0, unit.toNanos(interval));
 	}
 
 	/**
-	 * @param message the message to format
-	 * @param firstParam first message parameter
-	 * @param secondParam second message parameter
-	 * @return the formatted message with possible prepended tag
+	 * @return true if logging at the level of this logger is enabled.
 	 */
-	private String getPrepend(final String message,
-			final Object firstParam, final Object secondParam) {
-		String formatted =
-				MessageFormatter.format(message,
-						firstParam, secondParam).getMessage();
-		return getPrepend(formatted);
+	final boolean isOwnLevelEnabled() {
+		return emitter.isEnabled(level);
 	}
 
 	/**
-	 * @return the tag for this logger.
+	 * Logs a message at the level this logger is configured at.
+	 * @param message the message to log
 	 */
-	private String getTag() {
-		if (sForceTag != null) {
-			return sForceTag;
+	final void logAtOwnLevel(final String message) {
+		if (emitter.isEnabled(level)) {
+			emitter.emit(level, message);
 		}
-		return tag;
 	}
 
 	@Override
-	public final void debug(final String message) {
-		if (isDebugEnabled()) {
-			Log.d(getTag(), getPrepend(message));
+	public final void debug(final String arg0) {
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0);
 		}
 	}
 
 	@Override
 	public final void debug(final String arg0, final Object arg1) {
-		if (isDebugEnabled()) {
-			Log.d(getTag(), getPrepend(arg0, arg1));
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void debug(final String arg0, final Object[] arg1) {
-		if (isDebugEnabled()) {
-			Log.d(getTag(), getPrepend(arg0, arg1));
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void debug(final String arg0, final Throwable arg1) {
-		if (isDebugEnabled()) {
-			Log.d(getTag(), getPrepend(arg0), arg1);
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void debug(final String arg0, final Object arg1,
 			final Object arg2) {
-		if (isDebugEnabled()) {
-			Log.d(getTag(), getPrepend(arg0, arg1, arg2));
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1, arg2);
+		}
+	}
+
+	@Override
+	public final void debug(final String arg0, final long arg1) {
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void debug(final String arg0, final double arg1) {
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void debug(final String arg0, final float arg1) {
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void debug(final String arg0, final char arg1) {
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void debug(final String arg0, final long arg1,
+			final long arg2) {
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1, arg2);
+		}
+	}
+
+	@Override
+	public final void debug(final String arg0, final char arg1,
+			final char arg2) {
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1, arg2, LogEmitter.FIRST_IS_CHAR
+					| LogEmitter.SECOND_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void debug(final String arg0, final char arg1,
+			final long arg2) {
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1, arg2, LogEmitter.FIRST_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void debug(final String arg0, final long arg1,
+			final char arg2) {
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0, arg1, arg2, LogEmitter.SECOND_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void debug(final String arg0, final Object arg1,
+			final Object arg2, final Object arg3) {
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0,
+					new Object[] {arg1, arg2, arg3});
+		}
+	}
+
+	@Override
+	public final void debug(final String arg0, final Object arg1,
+			final Object arg2, final Object arg3, final Object arg4) {
+		if (emitter.isEnabled(DEBUG)) {
+			emitter.emit(DEBUG, arg0,
+					new Object[] {arg1, arg2, arg3, arg4});
 		}
 	}
 
 	@Override
 	public final void error(final String arg0) {
-		if (isErrorEnabled()) {
-			Log.e(getTag(), getPrepend(arg0));
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0);
 		}
 	}
 
 	@Override
 	public final void error(final String arg0, final Object arg1) {
-		if (isErrorEnabled()) {
-			Log.e(getTag(), getPrepend(arg0, arg1));
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void error(final String arg0, final Object[] arg1) {
-		if (isErrorEnabled()) {
-			Log.e(getTag(), getPrepend(arg0, arg1));
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void error(final String arg0, final Throwable arg1) {
-		if (isErrorEnabled()) {
-			Log.e(getTag(), getPrepend(arg0), arg1);
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void error(final String arg0, final Object arg1,
 			final Object arg2) {
-		if (isErrorEnabled()) {
-			Log.e(getTag(), getPrepend(arg0, arg1, arg1));
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1, arg2);
+		}
+	}
+
+	@Override
+	public final void error(final String arg0, final long arg1) {
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void error(final String arg0, final double arg1) {
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void error(final String arg0, final float arg1) {
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void error(final String arg0, final char arg1) {
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void error(final String arg0, final long arg1,
+			final long arg2) {
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1, arg2);
+		}
+	}
+
+	@Override
+	public final void error(final String arg0, final char arg1,
+			final char arg2) {
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1, arg2, LogEmitter.FIRST_IS_CHAR
+					| LogEmitter.SECOND_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void error(final String arg0, final char arg1,
+			final long arg2) {
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1, arg2, LogEmitter.FIRST_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void error(final String arg0, final long arg1,
+			final char arg2) {
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0, arg1, arg2, LogEmitter.SECOND_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void error(final String arg0, final Object arg1,
+			final Object arg2, final Object arg3) {
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0,
+					new Object[] {arg1, arg2, arg3});
+		}
+	}
+
+	@Override
+	public final void error(final String arg0, final Object arg1,
+			final Object arg2, final Object arg3, final Object arg4) {
+		if (emitter.isEnabled(ERROR)) {
+			emitter.emit(ERROR, arg0,
+					new Object[] {arg1, arg2, arg3, arg4});
 		}
 	}
 
 	@Override
 	public final void info(final String arg0) {
-		if (isInfoEnabled()) {
-			Log.i(getTag(), getPrepend(arg0));
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0);
 		}
 	}
 
 	@Override
 	public final void info(final String arg0, final Object arg1) {
-		if (isInfoEnabled()) {
-			Log.i(getTag(), getPrepend(arg0, arg1));
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void info(final String arg0, final Object[] arg1) {
-		if (isInfoEnabled()) {
-			Log.i(getTag(), getPrepend(arg0, arg1));
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void info(final String arg0, final Throwable arg1) {
-		if (isInfoEnabled()) {
-			Log.i(getTag(), getPrepend(arg0), arg1);
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void info(final String arg0, final Object arg1,
 			final Object arg2) {
-		if (isInfoEnabled()) {
-			Log.i(getTag(), getPrepend(arg0, arg1, arg2));
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1, arg2);
+		}
+	}
+
+	@Override
+	public final void info(final String arg0, final long arg1) {
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void info(final String arg0, final double arg1) {
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void info(final String arg0, final float arg1) {
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void info(final String arg0, final char arg1) {
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void info(final String arg0, final long arg1,
+			final long arg2) {
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1, arg2);
+		}
+	}
+
+	@Override
+	public final void info(final String arg0, final char arg1,
+			final char arg2) {
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1, arg2, LogEmitter.FIRST_IS_CHAR
+					| LogEmitter.SECOND_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void info(final String arg0, final char arg1,
+			final long arg2) {
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1, arg2, LogEmitter.FIRST_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void info(final String arg0, final long arg1,
+			final char arg2) {
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0, arg1, arg2, LogEmitter.SECOND_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void info(final String arg0, final Object arg1,
+			final Object arg2, final Object arg3) {
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0,
+					new Object[] {arg1, arg2, arg3});
+		}
+	}
+
+	@Override
+	public final void info(final String arg0, final Object arg1,
+			final Object arg2, final Object arg3, final Object arg4) {
+		if (emitter.isEnabled(INFO)) {
+			emitter.emit(INFO, arg0,
+					new Object[] {arg1, arg2, arg3, arg4});
 		}
 	}
 
 	@Override
 	public final boolean isDebugEnabled() {
-		return this.level <= DEBUG
-				&& (ignoreAndroidLevel || Log.isLoggable(tag, Log.DEBUG));
+		return emitter.isEnabled(DEBUG);
 	}
 
 	@Override
 	public final boolean isErrorEnabled() {
-		return this.level <= ERROR
-				&& (ignoreAndroidLevel || Log.isLoggable(tag, Log.ERROR));
+		return emitter.isEnabled(ERROR);
 	}
 
 	@Override
 	public final boolean isInfoEnabled() {
-		return this.level <= INFO
-				&& (ignoreAndroidLevel || Log.isLoggable(tag, Log.INFO));
+		return emitter.isEnabled(INFO);
 	}
 
 	@Override
 	public final boolean isTraceEnabled() {
-		return this.level <= TRACE
-				&& (ignoreAndroidLevel || Log.isLoggable(tag, Log.VERBOSE));
+		return emitter.isEnabled(TRACE);
 	}
 
 	@Override
 	public final boolean isWarnEnabled() {
-		return this.level <= WARN
-				&& (ignoreAndroidLevel || Log.isLoggable(tag, Log.WARN));
+		return emitter.isEnabled(WARN);
 	}
 
 	@Override
 	public final void trace(final String arg0) {
-		if (isTraceEnabled()) {
-			Log.v(getTag(), getPrepend(arg0));
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0);
 		}
 	}
 
 	@Override
 	public final void trace(final String arg0, final Object arg1) {
-		if (isTraceEnabled()) {
-			Log.v(getTag(), getPrepend(arg0, arg1));
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void trace(final String arg0, final Object[] arg1) {
-		if (isTraceEnabled()) {
-			Log.v(getTag(), getPrepend(arg0, arg1));
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void trace(final String arg0, final Throwable arg1) {
-		if (isTraceEnabled()) {
-			Log.v(getTag(), getPrepend(arg0), arg1);
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void trace(final String arg0, final Object arg1,
 			final Object arg2) {
-		if (isTraceEnabled()) {
-			Log.v(getTag(), getPrepend(arg0, arg1, arg2));
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1, arg2);
+		}
+	}
+
+	@Override
+	public final void trace(final String arg0, final long arg1) {
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void trace(final String arg0, final double arg1) {
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void trace(final String arg0, final float arg1) {
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void trace(final String arg0, final char arg1) {
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void trace(final String arg0, final long arg1,
+			final long arg2) {
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1, arg2);
+		}
+	}
+
+	@Override
+	public final void trace(final String arg0, final char arg1,
+			final char arg2) {
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1, arg2, LogEmitter.FIRST_IS_CHAR
+					| LogEmitter.SECOND_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void trace(final String arg0, final char arg1,
+			final long arg2) {
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1, arg2, LogEmitter.FIRST_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void trace(final String arg0, final long arg1,
+			final char arg2) {
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0, arg1, arg2, LogEmitter.SECOND_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void trace(final String arg0, final Object arg1,
+			final Object arg2, final Object arg3) {
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0,
+					new Object[] {arg1, arg2, arg3});
+		}
+	}
+
+	@Override
+	public final void trace(final String arg0, final Object arg1,
+			final Object arg2, final Object arg3, final Object arg4) {
+		if (emitter.isEnabled(TRACE)) {
+			emitter.emit(TRACE, arg0,
+					new Object[] {arg1, arg2, arg3, arg4});
 		}
 	}
 
 	@Override
 	public final void warn(final String arg0) {
-		if (isWarnEnabled()) {
-			Log.w(getTag(), getPrepend(arg0));
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0);
 		}
 	}
 
 	@Override
 	public final void warn(final String arg0, final Object arg1) {
-		if (isWarnEnabled()) {
-			Log.w(getTag(), getPrepend(arg0, arg1));
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void warn(final String arg0, final Object[] arg1) {
-		if (isWarnEnabled()) {
-			Log.w(getTag(), getPrepend(arg0, arg1));
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void warn(final String arg0, final Throwable arg1) {
-		if (isWarnEnabled()) {
-			Log.w(getTag(), getPrepend(arg0), arg1);
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1);
 		}
 	}
 
 	@Override
 	public final void warn(final String arg0, final Object arg1,
 			final Object arg2) {
-		if (isWarnEnabled()) {
-			Log.w(getTag(), getPrepend(arg0, arg1, arg2));
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1, arg2);
+		}
+	}
+
+	@Override
+	public final void warn(final String arg0, final long arg1) {
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void warn(final String arg0, final double arg1) {
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void warn(final String arg0, final float arg1) {
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void warn(final String arg0, final char arg1) {
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1);
+		}
+	}
+
+	@Override
+	public final void warn(final String arg0, final long arg1,
+			final long arg2) {
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1, arg2);
+		}
+	}
+
+	@Override
+	public final void warn(final String arg0, final char arg1,
+			final char arg2) {
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1, arg2, LogEmitter.FIRST_IS_CHAR
+					| LogEmitter.SECOND_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void warn(final String arg0, final char arg1,
+			final long arg2) {
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1, arg2, LogEmitter.FIRST_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void warn(final String arg0, final long arg1,
+			final char arg2) {
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0, arg1, arg2, LogEmitter.SECOND_IS_CHAR);
+		}
+	}
+
+	@Override
+	public final void warn(final String arg0, final Object arg1,
+			final Object arg2, final Object arg3) {
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0,
+					new Object[] {arg1, arg2, arg3});
+		}
+	}
+
+	@Override
+	public final void warn(final String arg0, final Object arg1,
+			final Object arg2, final Object arg3, final Object arg4) {
+		if (emitter.isEnabled(WARN)) {
+			emitter.emit(WARN, arg0,
+					new Object[] {arg1, arg2, arg3, arg4});
 		}
 	}
 
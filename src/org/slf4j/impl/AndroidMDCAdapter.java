@@ -0,0 +1,85 @@
+package org.slf4j.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.spi.MDCAdapter;
+
+/**
+ * <p>
+ * Keeps the MDC values of each thread in a map only that thread uses, so
+ * reading them for %X{key} takes no lock. A new thread starts with a copy
+ * of the values of the thread creating it.
+ * </p>
+ * <p>
+ * The BasicMDCAdapter of this SLF4J version hands new threads the map of
+ * their parent itself, so a child changing or clearing its values changes
+ * those of the parent as well.
+ * </p>
+ */
+final class AndroidMDCAdapter implements MDCAdapter {
+
+	/** The values of each thread or null if it has none. */
+	private final ThreadLocal<Map<String, String>> values =
+			new InheritableThreadLocal<Map<String, String>>() {
+		@Override
+		protected Map<String, String> childValue(
+				final Map<String, String> parentValue) {
+			if (parentValue == null) {
+				return null;
+			}
+			return new HashMap<String, String>(parentValue);
+		}
+	};
+
+	@Override
+	public void put(final String key, final String val) {
+		if (key == null) {
+			throw new IllegalArgumentException("key cannot be null");
+		}
+		Map<String, String> map = values.get();
+		if (map == null) {
+			map = new HashMap<String, String>();
+			values.set(map);
+		}
+		map.put(key, val);
+	}
+
+	@Override
+	public String get(final String key) {
+		Map<String, String> map = values.get();
+		if (map == null || key == null) {
+			return null;
+		}
+		return map.get(key);
+	}
+
+	@Override
+	public void remove(final String key) {
+		Map<String, String> map = values.get();
+		if (map != null) {
+			map.remove(key);
+		}
+	}
+
+	@Override
+	public void clear() {
+		values.remove();
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Map getCopyOfContextMap() {
+		Map<String, String> map = values.get();
+		if (map == null) {
+			return null;
+		}
+		return new HashMap<String, String>(map);
+	}
+
+	@Override
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void setContextMap(final Map contextMap) {
+		values.set(new HashMap<String, String>(contextMap));
+	}
+}
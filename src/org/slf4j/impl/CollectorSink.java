@@ -0,0 +1,531 @@
+package org.slf4j.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Properties;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import android.util.Log;
+
+/**
+ * <p>
+ * A {@link LogSink} which streams events over a socket to a log collector.
+ * Events are encoded into a bounded buffer on the logging thread and a
+ * background thread ships them in batches once the batch size is reached or
+ * the batch interval has elapsed, whichever comes first. All connecting and
+ * reconnecting is done on the background thread.
+ * </p>
+ * <p>
+ * When the buffer is full events below WARN are dropped. WARN and ERROR
+ * events wait up to collector.block.millis for room while the collector is
+ * connected and are dropped after that. The number of dropped events is
+ * sent with the next batch. An event takes at most a quarter of the buffer
+ * and is cut at a character boundary if it is longer.
+ * </p>
+ * <p>
+ * The stream is a sequence of batches, all integers big endian:
+ * </p>
+ *
+ * <pre>
+ * batch   := magic:int32 flags:int8 dropped:int32 rawLength:int32
+ *            length:int32 payload[length]
+ * payload := frame*   (deflated when flags has FLAG_DEFLATE)
+ * frame   := length:int32 level:int8 millis:int64 tagLength:int16
+ *            tag[tagLength] message[length - 11 - tagLength]
+ * </pre>
+ *
+ * <p>
+ * Tags and messages are UTF-8. The collector is configured with:<br/>
+ * collector.address=&lt;host&gt;:&lt;port&gt;<br/>
+ * and optionally collector.batch.size, collector.batch.millis,
+ * collector.buffer.size, collector.block.millis and collector.compress.
+ * </p>
+ */
+final class CollectorSink implements LogSink {
+
+	/** The prefix of all properties for this sink. */
+	static final String PROPERTY_PREFIX = "collector.";
+
+	/** The magic number starting each batch. */
+	static final int BATCH_MAGIC = 0x534c4634;
+
+	/** Batch flag set when the payload is deflated. */
+	static final int FLAG_DEFLATE = 1;
+
+	/** The bytes in a frame before the tag, not counting the length. */
+	static final int FRAME_HEADER = 1 + 8 + 2;
+
+	/** The longest tag we encode. */
+	private static final int MAX_TAG_BYTES = Short.MAX_VALUE;
+
+	/** The most of the buffer a single frame may take: a quarter. */
+	private static final int MAX_FRAME_SHIFT = 2;
+
+	/** Property with the collector address: collector.address. */
+	private static final String ADDRESS = PROPERTY_PREFIX + "address";
+	/** Property with the batch size in bytes: collector.batch.size. */
+	private static final String BATCH_SIZE = PROPERTY_PREFIX + "batch.size";
+	/** Property with the batch interval: collector.batch.millis. */
+	private static final String BATCH_MILLIS = PROPERTY_PREFIX + "batch.millis";
+	/** Property with the buffer size in bytes: collector.buffer.size. */
+	private static final String BUFFER_SIZE = PROPERTY_PREFIX + "buffer.size";
+	/** Property with the longest wait for room: collector.block.millis. */
+	private static final String BLOCK_MILLIS = PROPERTY_PREFIX + "block.millis";
+	/** Property turning on compression: collector.compress. */
+	private static final String COMPRESS = PROPERTY_PREFIX + "compress";
+
+	/** The default batch size in bytes. */
+	private static final int DEFAULT_BATCH_SIZE = 16 * 1024;
+	/** The default batch interval in milliseconds. */
+	private static final long DEFAULT_BATCH_MILLIS = 1000;
+	/** The default buffer size in bytes. */
+	private static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+	/** The default longest wait for room in milliseconds. */
+	private static final long DEFAULT_BLOCK_MILLIS = 50;
+
+	/** The timeout for connecting to the collector in milliseconds. */
+	private static final int CONNECT_TIMEOUT = 5000;
+	/** The first delay before reconnecting in milliseconds. */
+	private static final long MIN_RECONNECT_DELAY = 250;
+	/** The longest delay before reconnecting in milliseconds. */
+	private static final long MAX_RECONNECT_DELAY = 30000;
+
+	/** Nanoseconds in a millisecond. */
+	private static final long NANOS_PER_MILLI = 1000000L;
+
+	/** Log tag for SLF4J itself. */
+	private static final String SLF4J_TAG = "slf4j";
+
+	/** The address of the collector. */
+	private final InetSocketAddress address;
+
+	/** Send a batch once it has this many bytes. */
+	private final int batchSize;
+
+	/** Send a batch once this many nanoseconds have elapsed. */
+	private final long batchNanos;
+
+	/** How long WARN and ERROR events wait for room. */
+	private final long blockMillis;
+
+	/** Should batches be deflated. */
+	private final boolean compress;
+
+	/** The most bytes a frame may take, including its length. */
+	private final int maxFrame;
+
+	/** Guards the buffers and counters below. */
+	private final Object lock = new Object();
+
+	/** The buffer events are encoded into. */
+	private byte[] filling;
+
+	/** The number of bytes used in the filling buffer. */
+	private int fillCount;
+
+	/** The buffer which is swapped in when the filling one is sent. */
+	private byte[] spare;
+
+	/** The number of events dropped since the last batch. */
+	private int dropped;
+
+	/** Set once the sink is closed. */
+	private boolean closed;
+
+	/** Is the collector currently connected. */
+	private volatile boolean connected;
+
+	/** The thread shipping batches. */
+	private final Thread sender;
+
+	/**
+	 * Creates a sink and starts its sender thread.
+	 * @param collector the address of the collector
+	 * @param batchBytes send a batch once it has this many bytes
+	 * @param batchMillis send a batch at least this often
+	 * @param bufferBytes the size of the buffer for events
+	 * @param blockTime how long WARN and ERROR events wait for room
+	 * @param deflate should batches be deflated
+	 */
+	CollectorSink(final InetSocketAddress collector, final int batchBytes,
+			final long batchMillis, final int bufferBytes,
+			final long blockTime, final boolean deflate) {
+		this.address = collector;
+		this.batchSize = Math.min(batchBytes, bufferBytes);
+		this.batchNanos = batchMillis * NANOS_PER_MILLI;
+		this.blockMillis = blockTime;
+		this.compress = deflate;
+		this.maxFrame = bufferBytes >> MAX_FRAME_SHIFT;
+		this.filling = new byte[bufferBytes];
+		this.spare = new byte[bufferBytes];
+		this.sender = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				send();
+			}
+		}, "slf4j-collector");
+		this.sender.setDaemon(true);
+		this.sender.start();
+	}
+
+	/**
+	 * Creates a sink from the collector.* properties.
+	 * @param props the properties to read
+	 * @return the sink or null if no collector address is configured
+	 */
+	static CollectorSink configure(final Properties props) {
+		String value = props.getProperty(ADDRESS);
+		if (value == null) {
+			return null;
+		}
+		int colon = value.lastIndexOf(':');
+		try {
+			InetSocketAddress collector = InetSocketAddress.createUnresolved(
+					value.substring(0, colon).trim(),
+					Integer.parseInt(value.substring(colon + 1).trim()));
+			CollectorSink sink = new CollectorSink(collector,
+					(int) parse(props, BATCH_SIZE, DEFAULT_BATCH_SIZE),
+					parse(props, BATCH_MILLIS, DEFAULT_BATCH_MILLIS),
+					(int) parse(props, BUFFER_SIZE, DEFAULT_BUFFER_SIZE),
+					parse(props, BLOCK_MILLIS, DEFAULT_BLOCK_MILLIS),
+					Boolean.parseBoolean(props.getProperty(COMPRESS)));
+			Log.d(SLF4J_TAG, "Streaming to collector at: " + value);
+			return sink;
+		} catch (RuntimeException e) {
+			Log.w(SLF4J_TAG, "Invalid collector address: '" + value
+					+ "'. Not streaming.");
+			return null;
+		}
+	}
+
+	/**
+	 * @param props the properties to read
+	 * @param name the name of the property
+	 * @param defaultValue the value if the property is missing or invalid
+	 * @return the value of the property
+	 */
+	private static long parse(final Properties props, final String name,
+			final long defaultValue) {
+		String value = props.getProperty(name);
+		if (value != null) {
+			try {
+				return Long.parseLong(value.trim());
+			} catch (NumberFormatException e) {
+				Log.w(SLF4J_TAG, "Invalid value for: " + name + ": '"
+						+ value + "'. Using default.");
+			}
+		}
+		return defaultValue;
+	}
+
+	@Override
+	public void write(final int level, final String tag, final String message,
+			final Throwable throwable) {
+		String text = message;
+		if (text == null) {
+			text = "null";
+		}
+		if (throwable != null) {
+			text = text + '\n' + stackTrace(throwable);
+		}
+		int tagChars = Math.min(tag.length(),
+				MAX_TAG_BYTES / Utf8.MAX_BYTES_PER_CHAR);
+		// Reserve the worst case so encoding never runs out of room, but
+		// no more than a frame may take; longer events are cut to fit.
+		long worstCase = 4 + FRAME_HEADER
+				+ (tagChars + (long) text.length()) * Utf8.MAX_BYTES_PER_CHAR;
+		int needed = (int) Math.min(worstCase, maxFrame);
+		synchronized (lock) {
+			if (needed < 4 + FRAME_HEADER || !hasRoom(level, needed)) {
+				dropped++;
+				return;
+			}
+			byte[] buffer = filling;
+			int start = fillCount;
+			int limit = start + needed;
+			int at = start + 4;
+			buffer[at++] = (byte) level;
+			at = putLong(buffer, at, System.currentTimeMillis());
+			int tagStart = at + 2;
+			at = Utf8.encode(buffer, tagStart, tag, tagChars, limit);
+			putShort(buffer, tagStart - 2, at - tagStart);
+			at = Utf8.encode(buffer, at, text, text.length(), limit);
+			putInt(buffer, start, at - start - 4);
+			fillCount = at;
+			if (fillCount >= batchSize) {
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Waits for room for WARN and ERROR events if the collector is
+	 * connected. Must hold the lock.
+	 * @param level the level of the event
+	 * @param needed the bytes needed
+	 * @return true if there is room
+	 */
+	private boolean hasRoom(final int level, final int needed) {
+		if (needed > filling.length - fillCount && !closed
+				&& level >= AndroidLogger.WARN && connected) {
+			long deadline = System.nanoTime() + blockMillis * NANOS_PER_MILLI;
+			lock.notifyAll();
+			try {
+				long remaining = blockMillis;
+				while (needed > filling.length - fillCount && remaining > 0
+						&& connected) {
+					lock.wait(remaining);
+					remaining = (deadline - System.nanoTime())
+							/ NANOS_PER_MILLI;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return needed <= filling.length - fillCount && !closed;
+	}
+
+	/**
+	 * Stops the sender once everything buffered has been sent or the
+	 * timeout has elapsed.
+	 * @param timeoutMillis how long to wait for the sender
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	void close(final long timeoutMillis) throws InterruptedException {
+		synchronized (lock) {
+			closed = true;
+			lock.notifyAll();
+		}
+		sender.join(timeoutMillis);
+	}
+
+	/**
+	 * The body of the sender thread.
+	 */
+	private void send() {
+		Socket socket = null;
+		DataOutputStream out = null;
+		Deflater deflater = null;
+		byte[] deflated = null;
+		if (compress) {
+			deflater = new Deflater(Deflater.BEST_SPEED);
+			deflated = new byte[filling.length + filling.length / 8 + 64];
+		}
+		byte[] batch = null;
+		int length = 0;
+		int lost = 0;
+		long reconnectDelay = MIN_RECONNECT_DELAY;
+		while (true) {
+			if (batch == null) {
+				synchronized (lock) {
+					awaitBatch();
+					if (fillCount == 0 && dropped == 0) {
+						if (closed) {
+							break;
+						}
+						continue;
+					}
+					batch = filling;
+					length = fillCount;
+					lost = dropped;
+					filling = spare;
+					spare = batch;
+					fillCount = 0;
+					dropped = 0;
+					lock.notifyAll();
+				}
+			}
+			try {
+				if (socket == null) {
+					socket = new Socket();
+					socket.setTcpNoDelay(true);
+					socket.connect(new InetSocketAddress(address.getHostName(),
+							address.getPort()), CONNECT_TIMEOUT);
+					out = new DataOutputStream(new BufferedOutputStream(
+							socket.getOutputStream()));
+					connected = true;
+					reconnectDelay = MIN_RECONNECT_DELAY;
+				}
+				if (deflater != null) {
+					deflater.reset();
+					deflater.setInput(batch, 0, length);
+					deflater.finish();
+					int size = deflater.deflate(deflated);
+					writeBatch(out, FLAG_DEFLATE, lost, length, deflated, size);
+				} else {
+					writeBatch(out, 0, lost, length, batch, length);
+				}
+				batch = null;
+			} catch (IOException e) {
+				connected = false;
+				closeQuietly(socket);
+				socket = null;
+				synchronized (lock) {
+					if (closed) {
+						break;
+					}
+				}
+				try {
+					Thread.sleep(reconnectDelay);
+				} catch (InterruptedException ie) {
+					break;
+				}
+				reconnectDelay = Math.min(reconnectDelay * 2,
+						MAX_RECONNECT_DELAY);
+			}
+		}
+		connected = false;
+		closeQuietly(socket);
+		if (deflater != null) {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Waits until a batch is full, the interval elapses or we are closed.
+	 * Must hold the lock.
+	 */
+	private void awaitBatch() {
+		long deadline = System.nanoTime() + batchNanos;
+		try {
+			while (fillCount < batchSize && !closed) {
+				long remaining = (deadline - System.nanoTime())
+						/ NANOS_PER_MILLI;
+				if (remaining <= 0) {
+					break;
+				}
+				lock.wait(remaining);
+			}
+		} catch (InterruptedException e) {
+			closed = true;
+		}
+	}
+
+	/**
+	 * @param out the stream to write to
+	 * @param flags the batch flags
+	 * @param lost the number of events dropped before this batch
+	 * @param rawLength the length of the payload before compression
+	 * @param payload the payload
+	 * @param length the length of the payload
+	 * @throws IOException if writing fails
+	 */
+	private static void writeBatch(final DataOutputStream out,
+			final int flags, final int lost, final int rawLength,
+			final byte[] payload, final int length) throws IOException {
+		out.writeInt(BATCH_MAGIC);
+		out.writeByte(flags);
+		out.writeInt(lost);
+		out.writeInt(rawLength);
+		out.writeInt(length);
+		out.write(payload, 0, length);
+		out.flush();
+	}
+
+	/**
+	 * Reads one batch from a collector stream, as a collector or a stand in
+	 * for one would.
+	 * @param in the stream to read from
+	 * @param dropped an array whose first entry receives the dropped count,
+	 * or null
+	 * @return the frames in the batch, inflated if needed
+	 * @throws IOException if the stream is broken or malformed
+	 */
+	static byte[] readBatch(final DataInputStream in, final int[] dropped)
+			throws IOException {
+		if (in.readInt() != BATCH_MAGIC) {
+			throw new IOException("Bad batch magic");
+		}
+		int flags = in.readByte();
+		int lost = in.readInt();
+		byte[] frames = new byte[in.readInt()];
+		byte[] payload = new byte[in.readInt()];
+		in.readFully(payload);
+		if (dropped != null) {
+			dropped[0] = lost;
+		}
+		if ((flags & FLAG_DEFLATE) == 0) {
+			return payload;
+		}
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(payload);
+			if (inflater.inflate(frames) != frames.length) {
+				throw new IOException("Truncated batch");
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupt batch: " + e.getMessage());
+		} finally {
+			inflater.end();
+		}
+		return frames;
+	}
+
+	/**
+	 * @param socket the socket to close or null
+	 */
+	private static void closeQuietly(final Socket socket) {
+		if (socket != null) {
+			try {
+				socket.close();
+			} catch (IOException e) {
+				// Nothing more we can do.
+			}
+		}
+	}
+
+	/**
+	 * @param throwable the throwable
+	 * @return the stack trace of the throwable
+	 */
+	private static String stackTrace(final Throwable throwable) {
+		StringWriter trace = new StringWriter();
+		PrintWriter writer = new PrintWriter(trace);
+		throwable.printStackTrace(writer);
+		writer.flush();
+		return trace.toString();
+	}
+
+	/**
+	 * @param buffer the buffer to write to
+	 * @param at the index to write at
+	 * @param value the value to write
+	 */
+	private static void putShort(final byte[] buffer, final int at,
+			final int value) {
+		buffer[at] = (byte) (value >>> 8);
+		buffer[at + 1] = (byte) value;
+	}
+
+	/**
+	 * @param buffer the buffer to write to
+	 * @param at the index to write at
+	 * @param value the value to write
+	 */
+	private static void putInt(final byte[] buffer, final int at,
+			final int value) {
+		putShort(buffer, at, value >>> 16);
+		putShort(buffer, at + 2, value);
+	}
+
+	/**
+	 * @param buffer the buffer to write to
+	 * @param at the index to write at
+	 * @param value the value to write
+	 * @return the index following the value
+	 */
+	private static int putLong(final byte[] buffer, final int at,
+			final long value) {
+		putInt(buffer, at, (int) (value >>> 32));
+		putInt(buffer, at + 4, (int) value);
+		return at + 8;
+	}
+}
@@ -0,0 +1,135 @@
+package org.slf4j.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A fixed size, lock free histogram of durations in nanoseconds. Values are
+ * placed into logarithmic buckets: each power of two is split into
+ * {@link #SUB_BUCKETS} linear sub buckets, which keeps the relative error of
+ * any reported percentile below 1 / {@link #SUB_BUCKETS} while covering the
+ * whole positive range of a long in a few kilobytes.
+ * </p>
+ * <p>
+ * Recording a value only touches preallocated atomic arrays so it never
+ * allocates and never blocks. Taking a snapshot with {@link #drainTo(long[])}
+ * resets the histogram so each summary covers one reporting interval.
+ * </p>
+ */
+final class LatencyHistogram {
+
+	/** Log base 2 of the number of sub buckets per power of two. */
+	private static final int SUB_BUCKET_BITS = 3;
+
+	/** The number of linear sub buckets per power of two. */
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/** The mask for the sub bucket of a value. */
+	private static final int SUB_BUCKET_MASK = SUB_BUCKETS - 1;
+
+	/** The highest bit a positive long may have set. */
+	private static final int MAX_EXPONENT = 62;
+
+	/** The total number of buckets needed to cover all positive longs. */
+	static final int BUCKET_COUNT =
+			(MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+	/** The number of values in each bucket. */
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+	/** The smallest value recorded since the last drain. */
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+	/** The largest value recorded since the last drain. */
+	private final AtomicLong max = new AtomicLong(0);
+
+	/**
+	 * @param value the value to find the bucket for
+	 * @return the index of the bucket holding the value
+	 */
+	static int bucketFor(final long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) Math.max(value, 0);
+		}
+		int exponent = MAX_EXPONENT + 1 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS))
+				& SUB_BUCKET_MASK;
+		return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + sub;
+	}
+
+	/**
+	 * @param bucket the index of a bucket
+	 * @return the largest value which lands in the bucket
+	 */
+	static long highestValueIn(final int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+		long lowest = ((long) (SUB_BUCKETS + (bucket & SUB_BUCKET_MASK)))
+				<< shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * Records a single value. Negative values are counted as zero.
+	 * @param value the value in nanoseconds
+	 */
+	void record(final long value) {
+		long clamped = Math.max(value, 0);
+		buckets.incrementAndGet(bucketFor(clamped));
+		long current = min.get();
+		while (clamped < current && !min.compareAndSet(current, clamped)) {
+			current = min.get();
+		}
+		current = max.get();
+		while (clamped > current && !max.compareAndSet(current, clamped)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * Moves the counts into the given array and resets this histogram.
+	 * Values recorded concurrently with the drain end up either in this
+	 * snapshot or in the next one.
+	 * @param counts an array of {@link #BUCKET_COUNT} entries to fill
+	 * @return the total number of values moved
+	 */
+	long drainTo(final long[] counts) {
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = buckets.getAndSet(i, 0);
+			total += counts[i];
+		}
+		return total;
+	}
+
+	/**
+	 * Resets the minimum and maximum for the next interval.
+	 * @param range filled with the minimum and maximum since the last call
+	 */
+	void drainRange(final long[] range) {
+		range[0] = min.getAndSet(Long.MAX_VALUE);
+		range[1] = max.getAndSet(0);
+	}
+
+	/**
+	 * @param counts a snapshot filled by {@link #drainTo(long[])}
+	 * @param total the total returned by {@link #drainTo(long[])}
+	 * @param fraction the percentile wanted as a fraction in (0, 1]
+	 * @return the upper bound of the bucket holding the percentile
+	 */
+	static long percentile(final long[] counts, final long total,
+			final double fraction) {
+		long wanted = (long) Math.ceil(total * fraction);
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= wanted && seen > 0) {
+				return highestValueIn(i);
+			}
+		}
+		return 0;
+	}
+}
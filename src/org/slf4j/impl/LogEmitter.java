@@ -0,0 +1,520 @@
+package org.slf4j.impl;
+
+import org.slf4j.helpers.MessageFormatter;
+
+import android.util.Log;
+
+/**
+ * <p>
+ * The immutable, fully resolved output settings of one {@link AndroidLogger}.
+ * Everything which depends on the configuration (the tag to log with, the
+ * text to prepend, the enabled levels, whether to ask Android as well,
+ * which templates are logged as tokens, what to redact and where to write)
+ * is worked out
+ * once when the logger is created, so the log methods only read final
+ * fields instead of checking the global settings on every call.
+ * </p>
+ * <p>
+ * The methods here are kept small so they inline into the callers in
+ * AndroidLogger. When there are no tokens, layout, redactor or sink, which
+ * is the default, messages go straight to Log.println without looking at
+ * any of them.
+ * </p>
+ */
+final class LogEmitter {
+
+	/** Flag for a first argument which is a char rather than a long. */
+	static final int FIRST_IS_CHAR = 1;
+
+	/** Flag for a second argument which is a char rather than a long. */
+	static final int SECOND_IS_CHAR = 2;
+
+	/** Introduces the number of events a rate limited site skipped. */
+	private static final String SKIPPED_PREFIX = " [skipped ";
+
+	/** Closes the number of skipped events. */
+	private static final String SKIPPED_SUFFIX = "]";
+
+	/** The Android priority for each of our levels. */
+	private static final int[] ANDROID_PRIORITY = {Log.ASSERT, Log.VERBOSE,
+		Log.DEBUG, Log.INFO, Log.WARN, Log.ERROR};
+
+	/** The tag events are logged with. */
+	private final String tag;
+
+	/** The tag Android is asked about when checking levels. */
+	private final String loggableTag;
+
+	/** The text prepended to every message or null for none. */
+	private final String prepend;
+
+	/** The layout rendering a prefix for every message or null. */
+	private final PatternLayout layout;
+
+	/** The templates logged as tokens or null if not tokenized. */
+	private final TemplateTokens tokens;
+
+	/** The redactor masking sensitive text or null. */
+	private final Redactor redactor;
+
+	/** Bit (1 &lt;&lt; level) is set for every enabled level. */
+	private final int levelMask;
+
+	/** Should Log.isLoggable be checked as well. */
+	private final boolean checkAndroid;
+
+	/** The sink receiving events as well or null. */
+	private final LogSink sink;
+
+	/** Set when messages only need the prepend text and go to the log. */
+	private final boolean plain;
+
+	/**
+	 * @param logTag the tag events are logged with
+	 * @param ownTag the tag of the logger itself
+	 * @param prependText the text prepended to every message or null
+	 * @param prefixLayout the layout rendering a prefix or null
+	 * @param templateTokens the templates logged as tokens or null
+	 * @param messageRedactor the redactor masking sensitive text or null
+	 * @param level the lowest enabled level or DISABLED
+	 * @param checkAndroidLevel should Log.isLoggable be checked as well
+	 * @param logSink the sink receiving events as well or null
+	 */
+	LogEmitter(final String logTag, final String ownTag,
+			final String prependText, final PatternLayout prefixLayout,
+			final TemplateTokens templateTokens,
+			final Redactor messageRedactor, final int level,
+			final boolean checkAndroidLevel, final LogSink logSink) {
+		this.tag = logTag;
+		this.loggableTag = ownTag;
+		this.prepend = prependText;
+		this.layout = prefixLayout;
+		this.tokens = templateTokens;
+		this.redactor = messageRedactor;
+		int mask = 0;
+		if (level > AndroidLogger.DISABLED) {
+			for (int i = level; i <= AndroidLogger.ERROR; i++) {
+				mask |= 1 << i;
+			}
+		}
+		this.levelMask = mask;
+		this.checkAndroid = checkAndroidLevel;
+		this.sink = logSink;
+		this.plain = templateTokens == null && prefixLayout == null
+				&& messageRedactor == null && logSink == null;
+	}
+
+	/**
+	 * @return the tag events are logged with.
+	 */
+	String getTag() {
+		return tag;
+	}
+
+	/**
+	 * @param level the level to check
+	 * @return true if events at the level should be logged.
+	 */
+	boolean isEnabled(final int level) {
+		return (levelMask & (1 << level)) != 0 && (!checkAndroid
+				|| Log.isLoggable(loggableTag, ANDROID_PRIORITY[level]));
+	}
+
+	/**
+	 * @param level the level to log at
+	 * @param message the message to log
+	 */
+	void emit(final int level, final String message) {
+		if (plain && prepend == null) {
+			Log.println(ANDROID_PRIORITY[level], tag, message);
+		} else {
+			emit(level, message, (Throwable) null);
+		}
+	}
+
+	/**
+	 * @param level the level to log at
+	 * @param message the message to log
+	 * @param throwable the throwable to log
+	 */
+	void emit(final int level, final String message,
+			final Throwable throwable) {
+		StringBuilder buffer = startRecord(level, message);
+		if (buffer != null) {
+			int from = buffer.length();
+			print(level, finish(buffer, from), throwable);
+		} else {
+			print(level, withPrepend(level, message), throwable);
+		}
+	}
+
+	/**
+	 * @param level the level to log at
+	 * @param format the message format
+	 * @param arg the argument
+	 */
+	void emit(final int level, final String format, final Object arg) {
+		StringBuilder buffer = startRecord(level, format);
+		if (buffer != null) {
+			int from = buffer.length();
+			TemplateTokens.appendArgument(buffer, arg);
+			print(level, finish(buffer, from), null);
+		} else {
+			print(level, withPrepend(level,
+					MessageFormatter.format(format, arg).getMessage()), null);
+		}
+	}
+
+	/**
+	 * @param level the level to log at
+	 * @param format the message format
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void emit(final int level, final String format, final Object arg1,
+			final Object arg2) {
+		StringBuilder buffer = startRecord(level, format);
+		if (buffer != null) {
+			int from = buffer.length();
+			TemplateTokens.appendArgument(buffer, arg1);
+			TemplateTokens.appendArgument(buffer, arg2);
+			print(level, finish(buffer, from), null);
+		} else {
+			print(level, withPrepend(level,
+					MessageFormatter.format(format, arg1, arg2).getMessage()),
+					null);
+		}
+	}
+
+	/**
+	 * @param level the level to log at
+	 * @param format the message format
+	 * @param args the arguments
+	 */
+	void emit(final int level, final String format, final Object[] args) {
+		StringBuilder buffer = startRecord(level, format);
+		if (buffer != null) {
+			int from = buffer.length();
+			TemplateTokens.appendArguments(buffer, args);
+			print(level, finish(buffer, from), null);
+		} else {
+			print(level, withPrepend(level,
+					MessageFormatter.arrayFormat(format, args).getMessage()),
+					null);
+		}
+	}
+
+	/**
+	 * @param level the level to log at
+	 * @param format the message format
+	 * @param arg the argument
+	 */
+	void emit(final int level, final String format, final long arg) {
+		StringBuilder buffer = startRecord(level, format);
+		if (buffer != null) {
+			int from = buffer.length();
+			TemplateTokens.appendArgument(buffer, arg);
+			print(level, finish(buffer, from), null);
+			return;
+		}
+		buffer = startMessage(level);
+		int from = buffer.length();
+		int next = MessageBuffer.appendToAnchor(buffer, format, 0);
+		if (next >= 0) {
+			buffer.append(arg);
+			MessageBuffer.appendTail(buffer, format, next);
+		}
+		print(level, finish(buffer, from), null);
+	}
+
+	/**
+	 * @param level the level to log at
+	 * @param format the message format
+	 * @param arg the argument
+	 */
+	void emit(final int level, final String format, final double arg) {
+		StringBuilder buffer = startRecord(level, format);
+		if (buffer != null) {
+			int from = buffer.length();
+			TemplateTokens.appendArgument(buffer, arg);
+			print(level, finish(buffer, from), null);
+			return;
+		}
+		buffer = startMessage(level);
+		int from = buffer.length();
+		int next = MessageBuffer.appendToAnchor(buffer, format, 0);
+		if (next >= 0) {
+			buffer.append(arg);
+			MessageBuffer.appendTail(buffer, format, next);
+		}
+		print(level, finish(buffer, from), null);
+	}
+
+	/**
+	 * @param level the level to log at
+	 * @param format the message format
+	 * @param arg the argument
+	 */
+	void emit(final int level, final String format, final float arg) {
+		StringBuilder buffer = startRecord(level, format);
+		if (buffer != null) {
+			int from = buffer.length();
+			TemplateTokens.appendArgument(buffer, arg);
+			print(level, finish(buffer, from), null);
+			return;
+		}
+		buffer = startMessage(level);
+		int from = buffer.length();
+		int next = MessageBuffer.appendToAnchor(buffer, format, 0);
+		if (next >= 0) {
+			buffer.append(arg);
+			MessageBuffer.appendTail(buffer, format, next);
+		}
+		print(level, finish(buffer, from), null);
+	}
+
+	/**
+	 * @param level the level to log at
+	 * @param format the message format
+	 * @param arg the argument
+	 */
+	void emit(final int level, final String format, final char arg) {
+		StringBuilder buffer = startRecord(level, format);
+		if (buffer != null) {
+			int from = buffer.length();
+			TemplateTokens.appendArgument(buffer, arg);
+			print(level, finish(buffer, from), null);
+			return;
+		}
+		buffer = startMessage(level);
+		int from = buffer.length();
+		int next = MessageBuffer.appendToAnchor(buffer, format, 0);
+		if (next >= 0) {
+			buffer.append(arg);
+			MessageBuffer.appendTail(buffer, format, next);
+		}
+		print(level, finish(buffer, from), null);
+	}
+
+	/**
+	 * @param level the level to log at
+	 * @param format the message format
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void emit(final int level, final String format, final long arg1,
+			final long arg2) {
+		emit(level, format, arg1, arg2, 0);
+	}
+
+	/**
+	 * @param level the level to log at
+	 * @param format the message format
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param chars FIRST_IS_CHAR and SECOND_IS_CHAR for the arguments which
+	 * are chars
+	 */
+	void emit(final int level, final String format, final long arg1,
+			final long arg2, final int chars) {
+		boolean firstIsChar = (chars & FIRST_IS_CHAR) != 0;
+		boolean secondIsChar = (chars & SECOND_IS_CHAR) != 0;
+		StringBuilder buffer = startRecord(level, format);
+		if (buffer != null) {
+			int from = buffer.length();
+			appendArgument(buffer, arg1, firstIsChar);
+			appendArgument(buffer, arg2, secondIsChar);
+			print(level, finish(buffer, from), null);
+			return;
+		}
+		buffer = startMessage(level);
+		int from = buffer.length();
+		int next = MessageBuffer.appendToAnchor(buffer, format, 0);
+		if (next >= 0) {
+			append(buffer, arg1, firstIsChar);
+			next = MessageBuffer.appendToAnchor(buffer, format, next);
+			if (next >= 0) {
+				append(buffer, arg2, secondIsChar);
+				MessageBuffer.appendTail(buffer, format, next);
+			}
+		}
+		print(level, finish(buffer, from), null);
+	}
+
+	/**
+	 * Logs an event of a rate limited call site followed by the number of
+	 * events skipped before it, e.g. "[skipped 99]". The note follows the
+	 * formatted message, so these events are always plain text, even for
+	 * templates which are logged as tokens.
+	 * @param level the level to log at
+	 * @param format the message format or the message if args is null
+	 * @param args the arguments or null for a message without any
+	 * @param throwable the throwable to log or null
+	 * @param skipped the number of events skipped
+	 */
+	void emitSkipped(final int level, final String format,
+			final Object[] args, final Throwable throwable,
+			final long skipped) {
+		StringBuilder buffer = startMessage(level);
+		int from = buffer.length();
+		if (args == null) {
+			buffer.append(format);
+		} else {
+			buffer.append(MessageFormatter.arrayFormat(format, args)
+					.getMessage());
+		}
+		buffer.append(SKIPPED_PREFIX).append(skipped).append(SKIPPED_SUFFIX);
+		print(level, finish(buffer, from), throwable);
+	}
+
+	/**
+	 * @param buffer the buffer to append to
+	 * @param arg the argument to append
+	 * @param isChar is the argument a char
+	 */
+	private static void append(final StringBuilder buffer, final long arg,
+			final boolean isChar) {
+		if (isChar) {
+			buffer.append((char) arg);
+		} else {
+			buffer.append(arg);
+		}
+	}
+
+	/**
+	 * @param buffer the record to append to
+	 * @param arg the argument to append
+	 * @param isChar is the argument a char
+	 */
+	private static void appendArgument(final StringBuilder buffer,
+			final long arg, final boolean isChar) {
+		if (isChar) {
+			TemplateTokens.appendArgument(buffer, (char) arg);
+		} else {
+			TemplateTokens.appendArgument(buffer, arg);
+		}
+	}
+
+	/**
+	 * @param level the level of the message
+	 * @param format the message format
+	 * @return the buffer holding the start of the record for the format, or
+	 * null if the format should be logged as plain text
+	 */
+	private StringBuilder startRecord(final int level, final String format) {
+		if (tokens == null || !tokens.contains(format)) {
+			return null;
+		}
+		StringBuilder buffer = startMessage(level);
+		TemplateTokens.appendId(buffer, format);
+		return buffer;
+	}
+
+	/**
+	 * @param level the level of the message
+	 * @return the buffer for this thread with the layout and prepend text if
+	 * any.
+	 */
+	private StringBuilder startMessage(final int level) {
+		StringBuilder buffer = MessageBuffer.obtain();
+		if (layout != null) {
+			layout.render(buffer, level, loggableTag);
+		}
+		if (prepend != null) {
+			buffer.append(prepend);
+		}
+		return buffer;
+	}
+
+	/**
+	 * @param level the level of the message
+	 * @param message the message
+	 * @return the message with the layout and prepend text if any
+	 */
+	private String withPrepend(final int level, final String message) {
+		if (layout != null || redactor != null) {
+			StringBuilder buffer = startMessage(level);
+			int from = buffer.length();
+			return finish(buffer.append(message), from);
+		}
+		if (prepend != null) {
+			return prepend + message;
+		}
+		return message;
+	}
+
+	/**
+	 * Redacts the message if needed and releases the buffer.
+	 * @param buffer the buffer holding the message
+	 * @param from the index the message starts at, after the layout, the
+	 * prepend text and any record id, none of which are redacted
+	 * @return the final message
+	 */
+	private String finish(final StringBuilder buffer, final int from) {
+		if (redactor != null) {
+			redactor.redact(buffer, from);
+		}
+		return MessageBuffer.release(buffer);
+	}
+
+	/**
+	 * Sends a message to the Android log and the sink if there is one.
+	 * @param level the level to log at
+	 * @param message the message to log
+	 * @param throwable the throwable to log or null
+	 */
+	private void print(final int level, final String message,
+			final Throwable throwable) {
+		if (plain) {
+			printToLog(level, message, throwable);
+			return;
+		}
+		if (throwable != null && redactor != null) {
+			// The trace may hold the same values as the message, so it is
+			// redacted as well and sent as part of the message.
+			StringBuilder buffer = MessageBuffer.obtain();
+			buffer.append(message).append('\n');
+			int from = buffer.length();
+			buffer.append(Log.getStackTraceString(throwable));
+			print(level, finish(buffer, from), null);
+			return;
+		}
+		printToLog(level, message, throwable);
+		if (sink != null) {
+			sink.write(level, tag, message, throwable);
+		}
+	}
+
+	/**
+	 * Sends a message to the Android log through android.util.Log.
+	 * @param level the level to log at
+	 * @param message the message to log
+	 * @param throwable the throwable to log or null
+	 */
+	private void printToLog(final int level, final String message,
+			final Throwable throwable) {
+		if (throwable == null) {
+			// This is what Log.v and the others do with their priority.
+			Log.println(ANDROID_PRIORITY[level], tag, message);
+			return;
+		}
+		// Newer versions of Log split long traces over several entries.
+		switch (level) {
+		case AndroidLogger.TRACE:
+			Log.v(tag, message, throwable);
+			break;
+		case AndroidLogger.DEBUG:
+			Log.d(tag, message, throwable);
+			break;
+		case AndroidLogger.INFO:
+			Log.i(tag, message, throwable);
+			break;
+		case AndroidLogger.WARN:
+			Log.w(tag, message, throwable);
+			break;
+		default:
+			Log.e(tag, message, throwable);
+			break;
+		}
+	}
+}
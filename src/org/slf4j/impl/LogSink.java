@@ -0,0 +1,18 @@
+package org.slf4j.impl;
+
+/**
+ * A destination for log events which receives them in addition to the
+ * Android log. Sinks are called on the logging thread for enabled events
+ * only and must not block it for long.
+ */
+interface LogSink {
+
+	/**
+	 * Writes a single event.
+	 * @param level the level of the event, one of the AndroidLogger levels
+	 * @param tag the tag the event was logged with
+	 * @param message the formatted message
+	 * @param throwable the throwable logged with the event or null
+	 */
+	void write(int level, String tag, String message, Throwable throwable);
+}
@@ -0,0 +1,191 @@
+package org.slf4j.impl;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Formats SLF4J style messages into a per thread, reusable
+ * {@link StringBuilder}. Unlike {@link org.slf4j.helpers.MessageFormatter}
+ * this lets callers append primitive arguments straight into the buffer,
+ * without boxing them or creating temporary strings.
+ * </p>
+ * <p>
+ * A buffer is taken with {@link #obtain()} and handed back with
+ * {@link #release(StringBuilder)}. If the toString() of an argument logs
+ * while the buffer of its thread is taken, the nested message gets a fresh
+ * buffer, so it can not overwrite the message being formatted.
+ * </p>
+ * <p>
+ * Anchors follow the same rules as MessageFormatter: '{}' is replaced by the
+ * next argument, '\{}' is left as a literal '{}' and '\\{}' is a literal
+ * backslash followed by the argument. Once all arguments are used the rest
+ * of the pattern is appended as is.
+ * </p>
+ */
+final class MessageBuffer {
+
+	/** The initial capacity of each buffer. */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/** Buffers which grew beyond this capacity are not kept. */
+	private static final int MAX_RETAINED_CAPACITY = 4096;
+
+	/** The anchor which is replaced with an argument. */
+	private static final String ANCHOR = "{}";
+
+	/** The escape character. */
+	private static final char ESCAPE = '\\';
+
+	/** The idle buffer of each thread, which is null while it is taken. */
+	private static final ThreadLocal<StringBuilder[]> BUFFERS =
+			new ThreadLocal<StringBuilder[]>() {
+		@Override
+		protected StringBuilder[] initialValue() {
+			return new StringBuilder[] {new StringBuilder(INITIAL_CAPACITY)};
+		}
+	};
+
+	/**
+	 * No instances.
+	 */
+	private MessageBuffer() {
+	}
+
+	/**
+	 * Takes the buffer of the calling thread.
+	 * @return the empty buffer for the calling thread, or a new one if it is
+	 * already taken.
+	 */
+	static StringBuilder obtain() {
+		StringBuilder[] idle = BUFFERS.get();
+		StringBuilder buffer = idle[0];
+		if (buffer == null) {
+			return new StringBuilder(INITIAL_CAPACITY);
+		}
+		idle[0] = null;
+		buffer.setLength(0);
+		return buffer;
+	}
+
+	/**
+	 * Hands a buffer back for the next message of the calling thread.
+	 * Buffers which grew too large are dropped instead.
+	 * @param buffer the buffer returned by {@link #obtain()}
+	 * @return the contents of the buffer
+	 */
+	static String release(final StringBuilder buffer) {
+		String text = buffer.toString();
+		if (buffer.capacity() <= MAX_RETAINED_CAPACITY) {
+			BUFFERS.get()[0] = buffer;
+		}
+		return text;
+	}
+
+	/**
+	 * Appends the pattern up to the next anchor.
+	 * @param buffer the buffer to append to
+	 * @param pattern the message pattern
+	 * @param from the index in the pattern to start from
+	 * @return the index following the anchor, or -1 if there was no anchor
+	 * left, in which case the rest of the pattern has been appended
+	 */
+	static int appendToAnchor(final StringBuilder buffer, final String pattern,
+			final int from) {
+		if (pattern == null) {
+			buffer.append((String) null);
+			return -1;
+		}
+		int start = from;
+		while (true) {
+			int anchor = pattern.indexOf(ANCHOR, start);
+			if (anchor < 0) {
+				buffer.append(pattern, start, pattern.length());
+				return -1;
+			}
+			if (isEscaped(pattern, anchor)) {
+				if (isEscaped(pattern, anchor - 1)) {
+					// A literal backslash followed by an anchor.
+					buffer.append(pattern, start, anchor - 1);
+					return anchor + ANCHOR.length();
+				}
+				// A literal '{'; keep looking past it.
+				buffer.append(pattern, start, anchor - 1);
+				buffer.append(ANCHOR.charAt(0));
+				start = anchor + 1;
+			} else {
+				buffer.append(pattern, start, anchor);
+				return anchor + ANCHOR.length();
+			}
+		}
+	}
+
+	/**
+	 * Appends the rest of the pattern once all arguments are used.
+	 * @param buffer the buffer to append to
+	 * @param pattern the message pattern
+	 * @param from the index returned by the last call to
+	 * {@link #appendToAnchor(StringBuilder, String, int)}
+	 */
+	static void appendTail(final StringBuilder buffer, final String pattern,
+			final int from) {
+		if (from >= 0) {
+			buffer.append(pattern, from, pattern.length());
+		}
+	}
+
+	/**
+	 * Appends an object argument the way MessageFormatter would.
+	 * @param buffer the buffer to append to
+	 * @param argument the argument to append
+	 */
+	static void appendObject(final StringBuilder buffer,
+			final Object argument) {
+		if (argument == null) {
+			buffer.append((String) null);
+		} else if (argument instanceof Object[]) {
+			buffer.append(Arrays.deepToString((Object[]) argument));
+		} else if (argument.getClass().isArray()) {
+			appendPrimitiveArray(buffer, argument);
+		} else {
+			try {
+				buffer.append(argument.toString());
+			} catch (Throwable t) {
+				buffer.append("[FAILED toString()]");
+			}
+		}
+	}
+
+	/**
+	 * @param buffer the buffer to append to
+	 * @param array the primitive array to append
+	 */
+	private static void appendPrimitiveArray(final StringBuilder buffer,
+			final Object array) {
+		if (array instanceof int[]) {
+			buffer.append(Arrays.toString((int[]) array));
+		} else if (array instanceof long[]) {
+			buffer.append(Arrays.toString((long[]) array));
+		} else if (array instanceof double[]) {
+			buffer.append(Arrays.toString((double[]) array));
+		} else if (array instanceof float[]) {
+			buffer.append(Arrays.toString((float[]) array));
+		} else if (array instanceof byte[]) {
+			buffer.append(Arrays.toString((byte[]) array));
+		} else if (array instanceof short[]) {
+			buffer.append(Arrays.toString((short[]) array));
+		} else if (array instanceof char[]) {
+			buffer.append(Arrays.toString((char[]) array));
+		} else {
+			buffer.append(Arrays.toString((boolean[]) array));
+		}
+	}
+
+	/**
+	 * @param pattern the pattern to check
+	 * @param index the index of a character in the pattern
+	 * @return true if the character is preceded by an escape.
+	 */
+	private static boolean isEscaped(final String pattern, final int index) {
+		return index > 0 && pattern.charAt(index - 1) == ESCAPE;
+	}
+}
@@ -0,0 +1,510 @@
+package org.slf4j.impl;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.slf4j.MDC;
+
+/**
+ * <p>
+ * A prefix for every message, compiled once from a pattern into an array
+ * of converters so rendering it is a handful of appends to the message
+ * buffer. The pattern is set with:<br/>
+ * layout.pattern=&lt;pattern&gt;<br/>
+ * and may contain:
+ * </p>
+ * <ul>
+ * <li>%d or %d{format} - the time, using a SimpleDateFormat format which
+ * defaults to HH:mm:ss.SSS</li>
+ * <li>%t - the name of the current thread</li>
+ * <li>%p - the level</li>
+ * <li>%c - the tag of the logger</li>
+ * <li>%X{key} - the MDC value for the key</li>
+ * <li>%% - a percent sign</li>
+ * </ul>
+ * <p>
+ * Each conversion may have a minimum and maximum width as in %-5p or
+ * %.10t. Values are padded on the left, or on the right with '-', and
+ * truncated from the start.
+ * </p>
+ * <p>
+ * The time text is formatted once per second and only the milliseconds
+ * are filled in per event, and the padded thread name is cached per
+ * thread, so neither is formatted per event. Time formats showing the
+ * milliseconds other than as three digits are formatted once per
+ * millisecond instead.
+ * </p>
+ */
+final class PatternLayout {
+
+	/** The default format for %d. */
+	private static final String DEFAULT_DATE_FORMAT = "HH:mm:ss.SSS";
+
+	/** Spaces to pad values with. */
+	private static final String SPACES = "                ";
+
+	/** The names of the levels as rendered by %p. */
+	private static final String[] LEVEL_NAMES = {"", "TRACE", "DEBUG",
+		"INFO", "WARN", "ERROR"};
+
+	/** The converters in pattern order. */
+	private final Converter[] converters;
+
+	/**
+	 * @param compiled the converters in pattern order
+	 */
+	private PatternLayout(final Converter[] compiled) {
+		this.converters = compiled;
+	}
+
+	/**
+	 * Appends the prefix for an event.
+	 * @param buffer the buffer to append to
+	 * @param level the level of the event
+	 * @param tag the tag of the logger
+	 */
+	void render(final StringBuilder buffer, final int level,
+			final String tag) {
+		for (int i = 0; i < converters.length; i++) {
+			converters[i].render(buffer, level, tag);
+		}
+	}
+
+	/**
+	 * Compiles a pattern.
+	 * @param pattern the pattern to compile
+	 * @return the compiled layout
+	 * @throws IllegalArgumentException if the pattern is malformed
+	 */
+	static PatternLayout compile(final String pattern) {
+		List<Converter> compiled = new ArrayList<Converter>();
+		StringBuilder literal = new StringBuilder();
+		int i = 0;
+		while (i < pattern.length()) {
+			char c = pattern.charAt(i++);
+			if (c != '%') {
+				literal.append(c);
+				continue;
+			}
+			if (i < pattern.length() && pattern.charAt(i) == '%') {
+				literal.append('%');
+				i++;
+				continue;
+			}
+			if (literal.length() > 0) {
+				compiled.add(new Literal(literal.toString()));
+				literal.setLength(0);
+			}
+			boolean left = false;
+			if (i < pattern.length() && pattern.charAt(i) == '-') {
+				left = true;
+				i++;
+			}
+			int min = 0;
+			while (i < pattern.length()
+					&& Character.isDigit(pattern.charAt(i))) {
+				min = min * 10 + pattern.charAt(i++) - '0';
+			}
+			int max = Integer.MAX_VALUE;
+			if (i < pattern.length() && pattern.charAt(i) == '.') {
+				i++;
+				max = 0;
+				while (i < pattern.length()
+						&& Character.isDigit(pattern.charAt(i))) {
+					max = max * 10 + pattern.charAt(i++) - '0';
+				}
+			}
+			if (i >= pattern.length()) {
+				throw new IllegalArgumentException(
+						"Pattern ends in a conversion: " + pattern);
+			}
+			char conversion = pattern.charAt(i++);
+			String option = null;
+			if (i < pattern.length() && pattern.charAt(i) == '{') {
+				int end = pattern.indexOf('}', i);
+				if (end < 0) {
+					throw new IllegalArgumentException(
+							"Unclosed option in: " + pattern);
+				}
+				option = pattern.substring(i + 1, end);
+				i = end + 1;
+			}
+			Converter converter;
+			switch (conversion) {
+			case 'd':
+				if (option == null) {
+					option = DEFAULT_DATE_FORMAT;
+				}
+				converter = new DateConverter(option);
+				break;
+			case 't':
+				converter = new ThreadConverter();
+				break;
+			case 'p':
+				converter = new LevelConverter();
+				break;
+			case 'c':
+				converter = new TagConverter();
+				break;
+			case 'X':
+				if (option == null) {
+					throw new IllegalArgumentException(
+							"%X needs a key in: " + pattern);
+				}
+				converter = new MdcConverter(option);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown conversion '%"
+						+ conversion + "' in: " + pattern);
+			}
+			converter.setWidth(left, min, max);
+			compiled.add(converter);
+		}
+		if (literal.length() > 0) {
+			compiled.add(new Literal(literal.toString()));
+		}
+		return new PatternLayout(
+				compiled.toArray(new Converter[compiled.size()]));
+	}
+
+	/**
+	 * Renders one part of the prefix.
+	 */
+	private abstract static class Converter {
+
+		/** Pad on the right instead of the left. */
+		private boolean leftAlign;
+
+		/** The minimum width. */
+		private int minWidth;
+
+		/** The maximum width. */
+		private int maxWidth = Integer.MAX_VALUE;
+
+		/**
+		 * @param left pad on the right instead of the left
+		 * @param min the minimum width
+		 * @param max the maximum width
+		 */
+		final void setWidth(final boolean left, final int min,
+				final int max) {
+			this.leftAlign = left;
+			this.minWidth = min;
+			this.maxWidth = max;
+		}
+
+		/**
+		 * Appends the value padded and truncated to the width.
+		 * @param buffer the buffer to append to
+		 * @param level the level of the event
+		 * @param tag the tag of the logger
+		 */
+		void render(final StringBuilder buffer, final int level,
+				final String tag) {
+			int start = buffer.length();
+			append(buffer, level, tag);
+			int length = buffer.length() - start;
+			if (length > maxWidth) {
+				buffer.delete(start, start + length - maxWidth);
+			} else if (length < minWidth) {
+				if (leftAlign) {
+					pad(buffer, minWidth - length);
+				} else {
+					padBefore(buffer, start, minWidth - length);
+				}
+			}
+		}
+
+		/**
+		 * Appends a known value padded and truncated to the width.
+		 * @param buffer the buffer to append to
+		 * @param value the value
+		 */
+		final void renderFixed(final StringBuilder buffer,
+				final String value) {
+			String text = value;
+			if (text.length() > maxWidth) {
+				text = text.substring(text.length() - maxWidth);
+			}
+			if (!leftAlign) {
+				pad(buffer, minWidth - text.length());
+			}
+			buffer.append(text);
+			if (leftAlign) {
+				pad(buffer, minWidth - text.length());
+			}
+		}
+
+		/**
+		 * Appends the unpadded value.
+		 * @param buffer the buffer to append to
+		 * @param level the level of the event
+		 * @param tag the tag of the logger
+		 */
+		abstract void append(StringBuilder buffer, int level, String tag);
+
+		/**
+		 * @param buffer the buffer to append to
+		 * @param count the number of spaces to append
+		 */
+		private static void pad(final StringBuilder buffer, final int count) {
+			for (int i = 0; i < count; i++) {
+				buffer.append(' ');
+			}
+		}
+
+		/**
+		 * Inserts the padding in front of a value with a single insert for
+		 * any width up to that of SPACES.
+		 * @param buffer the buffer holding the value
+		 * @param start the index of the value
+		 * @param count the number of spaces to insert
+		 */
+		private static void padBefore(final StringBuilder buffer,
+				final int start, final int count) {
+			for (int left = count; left > 0; left -= SPACES.length()) {
+				buffer.insert(start, SPACES, 0,
+						Math.min(left, SPACES.length()));
+			}
+		}
+	}
+
+	/**
+	 * Renders literal text.
+	 */
+	private static final class Literal extends Converter {
+
+		/** The text. */
+		private final String text;
+
+		/**
+		 * @param literal the text
+		 */
+		Literal(final String literal) {
+			this.text = literal;
+		}
+
+		@Override
+		void render(final StringBuilder buffer, final int level,
+				final String tag) {
+			buffer.append(text);
+		}
+
+		@Override
+		void append(final StringBuilder buffer, final int level,
+				final String tag) {
+			buffer.append(text);
+		}
+	}
+
+	/**
+	 * Renders the time from the text cached for the current second, filling
+	 * in the milliseconds.
+	 */
+	private static final class DateConverter extends Converter {
+
+		/** Milliseconds in a second. */
+		private static final int MILLIS_PER_SECOND = 1000;
+
+		/** The format, guarded by itself. */
+		private final SimpleDateFormat format;
+
+		/** Cleared if the format shows milliseconds other than as SSS. */
+		private boolean perSecond = true;
+
+		/** The most recently rendered time. */
+		private volatile CachedTime cached = new CachedTime(0, 0, "", -1);
+
+		/**
+		 * @param pattern the SimpleDateFormat pattern
+		 */
+		DateConverter(final String pattern) {
+			this.format = new SimpleDateFormat(pattern);
+		}
+
+		@Override
+		void append(final StringBuilder buffer, final int level,
+				final String tag) {
+			long now = System.currentTimeMillis();
+			CachedTime time = cached;
+			if (now < time.from || now >= time.to) {
+				time = cache(now);
+				cached = time;
+			}
+			String text = time.text;
+			int at = time.millisAt;
+			if (at < 0) {
+				buffer.append(text);
+				return;
+			}
+			int millis = (int) (now - time.from);
+			buffer.append(text, 0, at);
+			buffer.append((char) ('0' + millis / 100));
+			buffer.append((char) ('0' + millis / 10 % 10));
+			buffer.append((char) ('0' + millis % 10));
+			buffer.append(text, at + 3, text.length());
+		}
+
+		/**
+		 * Formats the second holding the time. If that text can not take
+		 * the milliseconds in three digits only the millisecond is cached.
+		 * @param now the time to render
+		 * @return the text for the second or millisecond holding the time
+		 */
+		private CachedTime cache(final long now) {
+			synchronized (format) {
+				if (perSecond) {
+					long second = now - now % MILLIS_PER_SECOND;
+					long next = second + MILLIS_PER_SECOND;
+					String first = format.format(new Date(second));
+					String last = format.format(new Date(next - 1));
+					if (first.equals(last)) {
+						return new CachedTime(second, next, first, -1);
+					}
+					int at = millisAt(first, last);
+					if (at >= 0) {
+						return new CachedTime(second, next, first, at);
+					}
+					perSecond = false;
+				}
+				return new CachedTime(now, now + 1,
+						format.format(new Date(now)), -1);
+			}
+		}
+
+		/**
+		 * @param first the text for the first millisecond of a second
+		 * @param last the text for the last millisecond of the second
+		 * @return the index of the milliseconds if they are the only
+		 * difference and shown as three digits, otherwise -1
+		 */
+		private static int millisAt(final String first, final String last) {
+			if (first.length() != last.length()) {
+				return -1;
+			}
+			int at = 0;
+			while (first.charAt(at) == last.charAt(at)) {
+				at++;
+			}
+			if (first.startsWith("000", at) && last.startsWith("999", at)
+					&& first.regionMatches(at + 3, last, at + 3,
+							first.length() - at - 3)) {
+				return at;
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * An immutable rendered time.
+	 */
+	private static final class CachedTime {
+
+		/** The first millisecond the text is for. */
+		private final long from;
+
+		/** The millisecond after the last one the text is for. */
+		private final long to;
+
+		/** The text for the time. */
+		private final String text;
+
+		/** The index of the three digit milliseconds in the text or -1. */
+		private final int millisAt;
+
+		/**
+		 * @param start the first millisecond the text is for
+		 * @param end the millisecond after the last one the text is for
+		 * @param rendered the text for the time
+		 * @param millisIndex the index of the three digit milliseconds in
+		 * the text or -1 if the text is used as it is
+		 */
+		CachedTime(final long start, final long end, final String rendered,
+				final int millisIndex) {
+			this.from = start;
+			this.to = end;
+			this.text = rendered;
+			this.millisAt = millisIndex;
+		}
+	}
+
+	/**
+	 * Renders the thread name, cached per thread along with its padding.
+	 */
+	private static final class ThreadConverter extends Converter {
+
+		/** The name and its rendering for each thread. */
+		private final ThreadLocal<String[]> names = new ThreadLocal<String[]>();
+
+		@Override
+		void render(final StringBuilder buffer, final int level,
+				final String tag) {
+			String name = Thread.currentThread().getName();
+			String[] cached = names.get();
+			if (cached == null || cached[0] != name) {
+				StringBuilder rendered = new StringBuilder();
+				renderFixed(rendered, name);
+				cached = new String[] {name, rendered.toString()};
+				names.set(cached);
+			}
+			buffer.append(cached[1]);
+		}
+
+		@Override
+		void append(final StringBuilder buffer, final int level,
+				final String tag) {
+			buffer.append(Thread.currentThread().getName());
+		}
+	}
+
+	/**
+	 * Renders the level.
+	 */
+	private static final class LevelConverter extends Converter {
+
+		@Override
+		void append(final StringBuilder buffer, final int level,
+				final String tag) {
+			buffer.append(LEVEL_NAMES[level]);
+		}
+	}
+
+	/**
+	 * Renders the tag of the logger.
+	 */
+	private static final class TagConverter extends Converter {
+
+		@Override
+		void append(final StringBuilder buffer, final int level,
+				final String tag) {
+			buffer.append(tag);
+		}
+	}
+
+	/**
+	 * Renders an MDC value or nothing if it is not set.
+	 */
+	private static final class MdcConverter extends Converter {
+
+		/** The MDC key. */
+		private final String key;
+
+		/**
+		 * @param mdcKey the MDC key
+		 */
+		MdcConverter(final String mdcKey) {
+			this.key = mdcKey;
+		}
+
+		@Override
+		void append(final StringBuilder buffer, final int level,
+				final String tag) {
+			String value = MDC.get(key);
+			if (value != null) {
+				buffer.append(value);
+			}
+		}
+	}
+}
@@ -0,0 +1,439 @@
+package org.slf4j.impl;
+
+import org.slf4j.Logger;
+
+/**
+ * <p>
+ * An extension of {@link Logger} with overloads which take primitive
+ * arguments directly and fixed arity overloads for three and four
+ * arguments. Calls through the plain Logger interface box primitives and
+ * allocate an argument array before the logger can check the level; with
+ * these overloads a call for a disabled level allocates nothing.
+ * </p>
+ * <p>
+ * int, short and byte arguments widen to the long overloads. char and float
+ * arguments have overloads of their own so they are still logged as a
+ * character and as a float. Boxed values, booleans and pairs mixing in a
+ * floating point argument go to the Object overloads as before. Existing
+ * calls log the same text and pick these up simply by declaring the logger
+ * with this type:
+ * </p>
+ *
+ * <pre>
+ * private static final PrimitiveLogger LOG =
+ *         (PrimitiveLogger) LoggerFactory.getLogger(Foo.class);
+ * </pre>
+ *
+ * <p>
+ * The three and four argument overloads only take Objects, so primitive
+ * arguments to them are boxed before the level is checked, as are the
+ * arguments of pairs mixing in a floating point argument. HotSpot may
+ * remove that boxing once the call is compiled, but ART does not, so guard
+ * such calls with isDebugEnabled() and the like where they run often.
+ * There are no primitive variants of them since a char argument would then
+ * widen to long and log as a number, and covering every mix of char and
+ * long would take sixteen overloads per level.
+ * </p>
+ */
+public interface PrimitiveLogger extends Logger {
+
+	/**
+	 * Log a message at the TRACE level with one long argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void trace(String format, long arg);
+
+	/**
+	 * Log a message at the TRACE level with one double argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void trace(String format, double arg);
+
+	/**
+	 * Log a message at the TRACE level with one float argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void trace(String format, float arg);
+
+	/**
+	 * Log a message at the TRACE level with one char argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void trace(String format, char arg);
+
+	/**
+	 * Log a message at the TRACE level with two long arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void trace(String format, long arg1, long arg2);
+
+	/**
+	 * Log a message at the TRACE level with two char arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void trace(String format, char arg1, char arg2);
+
+	/**
+	 * Log a message at the TRACE level with a char and a long argument.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void trace(String format, char arg1, long arg2);
+
+	/**
+	 * Log a message at the TRACE level with a long and a char argument.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void trace(String format, long arg1, char arg2);
+
+	/**
+	 * Log a message at the TRACE level with three arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 */
+	void trace(String format, Object arg1, Object arg2, Object arg3);
+
+	/**
+	 * Log a message at the TRACE level with four arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 * @param arg4 the fourth argument
+	 */
+	void trace(String format, Object arg1, Object arg2, Object arg3,
+			Object arg4);
+
+	/**
+	 * Log a message at the DEBUG level with one long argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void debug(String format, long arg);
+
+	/**
+	 * Log a message at the DEBUG level with one double argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void debug(String format, double arg);
+
+	/**
+	 * Log a message at the DEBUG level with one float argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void debug(String format, float arg);
+
+	/**
+	 * Log a message at the DEBUG level with one char argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void debug(String format, char arg);
+
+	/**
+	 * Log a message at the DEBUG level with two long arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void debug(String format, long arg1, long arg2);
+
+	/**
+	 * Log a message at the DEBUG level with two char arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void debug(String format, char arg1, char arg2);
+
+	/**
+	 * Log a message at the DEBUG level with a char and a long argument.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void debug(String format, char arg1, long arg2);
+
+	/**
+	 * Log a message at the DEBUG level with a long and a char argument.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void debug(String format, long arg1, char arg2);
+
+	/**
+	 * Log a message at the DEBUG level with three arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 */
+	void debug(String format, Object arg1, Object arg2, Object arg3);
+
+	/**
+	 * Log a message at the DEBUG level with four arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 * @param arg4 the fourth argument
+	 */
+	void debug(String format, Object arg1, Object arg2, Object arg3,
+			Object arg4);
+
+	/**
+	 * Log a message at the INFO level with one long argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void info(String format, long arg);
+
+	/**
+	 * Log a message at the INFO level with one double argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void info(String format, double arg);
+
+	/**
+	 * Log a message at the INFO level with one float argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void info(String format, float arg);
+
+	/**
+	 * Log a message at the INFO level with one char argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void info(String format, char arg);
+
+	/**
+	 * Log a message at the INFO level with two long arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void info(String format, long arg1, long arg2);
+
+	/**
+	 * Log a message at the INFO level with two char arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void info(String format, char arg1, char arg2);
+
+	/**
+	 * Log a message at the INFO level with a char and a long argument.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void info(String format, char arg1, long arg2);
+
+	/**
+	 * Log a message at the INFO level with a long and a char argument.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void info(String format, long arg1, char arg2);
+
+	/**
+	 * Log a message at the INFO level with three arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 */
+	void info(String format, Object arg1, Object arg2, Object arg3);
+
+	/**
+	 * Log a message at the INFO level with four arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 * @param arg4 the fourth argument
+	 */
+	void info(String format, Object arg1, Object arg2, Object arg3,
+			Object arg4);
+
+	/**
+	 * Log a message at the WARN level with one long argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void warn(String format, long arg);
+
+	/**
+	 * Log a message at the WARN level with one double argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void warn(String format, double arg);
+
+	/**
+	 * Log a message at the WARN level with one float argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void warn(String format, float arg);
+
+	/**
+	 * Log a message at the WARN level with one char argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void warn(String format, char arg);
+
+	/**
+	 * Log a message at the WARN level with two long arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void warn(String format, long arg1, long arg2);
+
+	/**
+	 * Log a message at the WARN level with two char arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void warn(String format, char arg1, char arg2);
+
+	/**
+	 * Log a message at the WARN level with a char and a long argument.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void warn(String format, char arg1, long arg2);
+
+	/**
+	 * Log a message at the WARN level with a long and a char argument.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void warn(String format, long arg1, char arg2);
+
+	/**
+	 * Log a message at the WARN level with three arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 */
+	void warn(String format, Object arg1, Object arg2, Object arg3);
+
+	/**
+	 * Log a message at the WARN level with four arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 * @param arg4 the fourth argument
+	 */
+	void warn(String format, Object arg1, Object arg2, Object arg3,
+			Object arg4);
+
+	/**
+	 * Log a message at the ERROR level with one long argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void error(String format, long arg);
+
+	/**
+	 * Log a message at the ERROR level with one double argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void error(String format, double arg);
+
+	/**
+	 * Log a message at the ERROR level with one float argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void error(String format, float arg);
+
+	/**
+	 * Log a message at the ERROR level with one char argument.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	void error(String format, char arg);
+
+	/**
+	 * Log a message at the ERROR level with two long arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void error(String format, long arg1, long arg2);
+
+	/**
+	 * Log a message at the ERROR level with two char arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void error(String format, char arg1, char arg2);
+
+	/**
+	 * Log a message at the ERROR level with a char and a long argument.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void error(String format, char arg1, long arg2);
+
+	/**
+	 * Log a message at the ERROR level with a long and a char argument.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	void error(String format, long arg1, char arg2);
+
+	/**
+	 * Log a message at the ERROR level with three arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 */
+	void error(String format, Object arg1, Object arg2, Object arg3);
+
+	/**
+	 * Log a message at the ERROR level with four arguments.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 * @param arg4 the fourth argument
+	 */
+	void error(String format, Object arg1, Object arg2, Object arg3,
+			Object arg4);
+}
@@ -0,0 +1,118 @@
+package org.slf4j.impl;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * The state of all {@link RateLimitedLogger} call sites, packed into shared
+ * atomic arrays. Each site owns {@link #SLOTS_PER_SITE} longs: a counter
+ * (or the time of the last emitted event) and the number of events skipped
+ * since then.
+ * </p>
+ * <p>
+ * Sites are handed out in chunks which never move once created, so a
+ * site can hold on to its chunk and update it without any locking. Only
+ * allocating a site takes a lock.
+ * </p>
+ */
+final class RateLimitTable {
+
+	/** Log base 2 of the number of sites in a chunk. */
+	private static final int CHUNK_BITS = 6;
+
+	/** The number of sites in a chunk. */
+	private static final int CHUNK_SITES = 1 << CHUNK_BITS;
+
+	/** The number of longs each site uses. */
+	private static final int SLOTS_PER_SITE = 2;
+
+	/** Offset of the counter or time of the last event of a site. */
+	private static final int LAST = 0;
+
+	/** Offset of the number of skipped events of a site. */
+	private static final int SKIPPED = 1;
+
+	/** Guards allocation of sites. */
+	private static final Object LOCK = new Object();
+
+	/** The chunks allocated so far. */
+	private static final ArrayList<AtomicLongArray> CHUNKS =
+			new ArrayList<AtomicLongArray>();
+
+	/** The number of sites allocated so far. */
+	private static int sSites = 0;
+
+	/**
+	 * No instances.
+	 */
+	private RateLimitTable() {
+	}
+
+	/**
+	 * @return the id of a new site.
+	 */
+	static int allocate() {
+		synchronized (LOCK) {
+			if (sSites == CHUNKS.size() * CHUNK_SITES) {
+				CHUNKS.add(new AtomicLongArray(CHUNK_SITES * SLOTS_PER_SITE));
+			}
+			return sSites++;
+		}
+	}
+
+	/**
+	 * @param site the id of a site
+	 * @return the chunk holding the state of the site
+	 */
+	static AtomicLongArray chunkOf(final int site) {
+		synchronized (LOCK) {
+			return CHUNKS.get(site >>> CHUNK_BITS);
+		}
+	}
+
+	/**
+	 * @param site the id of a site
+	 * @return the offset of the state of the site within its chunk
+	 */
+	static int offsetOf(final int site) {
+		return (site & (CHUNK_SITES - 1)) * SLOTS_PER_SITE;
+	}
+
+	/**
+	 * Counts an event for a site emitting every Nth event.
+	 * @param chunk the chunk of the site
+	 * @param offset the offset of the site
+	 * @param count emit one event out of this many
+	 * @return the events skipped before this one if it should be emitted,
+	 * otherwise -1
+	 */
+	static long admitEvery(final AtomicLongArray chunk, final int offset,
+			final long count) {
+		if (chunk.getAndIncrement(offset + LAST) % count == 0) {
+			return chunk.getAndSet(offset + SKIPPED, 0);
+		}
+		chunk.incrementAndGet(offset + SKIPPED);
+		return -1;
+	}
+
+	/**
+	 * Counts an event for a site emitting at most once per interval.
+	 * @param chunk the chunk of the site
+	 * @param offset the offset of the site
+	 * @param intervalNanos the shortest time between emitted events
+	 * @return the events skipped before this one if it should be emitted,
+	 * otherwise -1
+	 */
+	static long admitInterval(final AtomicLongArray chunk, final int offset,
+			final long intervalNanos) {
+		long now = System.nanoTime();
+		long last = chunk.get(offset + LAST);
+		if ((last == 0 || now - last >= intervalNanos)
+				&& chunk.compareAndSet(offset + LAST, last, now)) {
+			return chunk.getAndSet(offset + SKIPPED, 0);
+		}
+		chunk.incrementAndGet(offset + SKIPPED);
+		return -1;
+	}
+}
@@ -0,0 +1,1309 @@
+package org.slf4j.impl;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A view of an {@link AndroidLogger} for a single noisy call site which lets
+ * through only every Nth event or at most one event per interval. Obtain one
+ * with {@link AndroidLogger#every(int)} or
+ * {@link AndroidLogger#atMostEvery(long, java.util.concurrent.TimeUnit)}.
+ * Each call returns a new site with its own count, so keep it in a field:
+ * </p>
+ *
+ * <pre>
+ * private static final RateLimitedLogger FRAME_LOG =
+ *         ((AndroidLogger) LOG).every(100);
+ * ...
+ * FRAME_LOG.debug("Rendered frame {}", frame);
+ * </pre>
+ *
+ * <p>
+ * The state of the site lives in the {@link RateLimitTable} and is updated
+ * without locking. A skipped event costs a level check and an atomic
+ * increment; nothing is formatted or allocated. The overloads are those of
+ * {@link PrimitiveLogger}, so primitive arguments are not boxed before the
+ * site is checked, with the same caveat for three and four arguments. The
+ * next emitted event ends with the number of events skipped before it,
+ * e.g. "[skipped 99]".
+ * </p>
+ */
+public final class RateLimitedLogger {
+
+	/** The emitter of the logger we limit. */
+	private final LogEmitter emitter;
+
+	/** The chunk of the rate limit table holding our state. */
+	private final AtomicLongArray chunk;
+
+	/** The offset of our state in the chunk. */
+	private final int offset;
+
+	/** Emit one event out of this many or 0 if limited by time. */
+	private final long count;
+
+	/** The shortest time between emitted events in nanoseconds. */
+	private final long intervalNanos;
+
+	/**
+	 * Package access allows only {@link AndroidLogger} to create instances.
+	 * @param logEmitter the emitter of the logger to limit
+	 * @param everyCount emit one event out of this many or 0
+	 * @param interval the shortest time between events in nanoseconds,
+	 * used when everyCount is 0
+	 */
+	RateLimitedLogger(final LogEmitter logEmitter, final long everyCount,
+			final long interval) {
+		this.emitter = logEmitter;
+		int site = RateLimitTable.allocate();
+		this.chunk = RateLimitTable.chunkOf(site);
+		this.offset = RateLimitTable.offsetOf(site);
+		this.count = everyCount;
+		this.intervalNanos = interval;
+	}
+
+	/**
+	 * @param level the level of the event
+	 * @return the events skipped before this one if it should be emitted,
+	 * otherwise -1
+	 */
+	private long admit(final int level) {
+		if (!emitter.isEnabled(level)) {
+			return -1;
+		}
+		if (count > 0) {
+			return RateLimitTable.admitEvery(chunk, offset, count);
+		}
+		return RateLimitTable.admitInterval(chunk, offset, intervalNanos);
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param msg the message
+	 */
+	public void trace(final String msg) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, msg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, msg,
+					null, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param msg the message
+	 * @param t the exception to log
+	 */
+	public void trace(final String msg, final Throwable t) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, msg, t);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, msg,
+					null, t, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void trace(final String format, final Object arg) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {arg}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void trace(final String format, final Object arg1,
+			final Object arg2) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format, arg1, arg2);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {arg1, arg2}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param args the arguments
+	 */
+	public void trace(final String format, final Object[] args) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format, args);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					args, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void trace(final String format, final long arg) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {Long.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void trace(final String format, final char arg) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {Character.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void trace(final String format, final double arg) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {Double.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void trace(final String format, final float arg) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {Float.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void trace(final String format, final long arg1, final long arg2) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format, arg1, arg2);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {Long.valueOf(arg1),
+							Long.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void trace(final String format, final char arg1, final char arg2) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format, arg1, arg2,
+					LogEmitter.FIRST_IS_CHAR | LogEmitter.SECOND_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {Character.valueOf(arg1),
+							Character.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void trace(final String format, final char arg1, final long arg2) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format, arg1, arg2,
+					LogEmitter.FIRST_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {Character.valueOf(arg1),
+							Long.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void trace(final String format, final long arg1, final char arg2) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format, arg1, arg2,
+					LogEmitter.SECOND_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {Long.valueOf(arg1),
+							Character.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 */
+	public void trace(final String format, final Object arg1, final Object arg2,
+			final Object arg3) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format,
+					new Object[] {arg1, arg2, arg3});
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {arg1, arg2, arg3}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the TRACE level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 * @param arg4 the fourth argument
+	 */
+	public void trace(final String format, final Object arg1, final Object arg2,
+			final Object arg3, final Object arg4) {
+		long skipped = admit(AndroidLogger.TRACE);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.TRACE, format,
+					new Object[] {arg1, arg2, arg3, arg4});
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.TRACE, format,
+					new Object[] {arg1, arg2, arg3, arg4}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param msg the message
+	 */
+	public void debug(final String msg) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, msg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, msg,
+					null, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param msg the message
+	 * @param t the exception to log
+	 */
+	public void debug(final String msg, final Throwable t) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, msg, t);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, msg,
+					null, t, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void debug(final String format, final Object arg) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {arg}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void debug(final String format, final Object arg1,
+			final Object arg2) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format, arg1, arg2);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {arg1, arg2}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param args the arguments
+	 */
+	public void debug(final String format, final Object[] args) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format, args);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					args, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void debug(final String format, final long arg) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {Long.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void debug(final String format, final char arg) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {Character.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void debug(final String format, final double arg) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {Double.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void debug(final String format, final float arg) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {Float.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void debug(final String format, final long arg1, final long arg2) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format, arg1, arg2);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {Long.valueOf(arg1),
+							Long.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void debug(final String format, final char arg1, final char arg2) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format, arg1, arg2,
+					LogEmitter.FIRST_IS_CHAR | LogEmitter.SECOND_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {Character.valueOf(arg1),
+							Character.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void debug(final String format, final char arg1, final long arg2) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format, arg1, arg2,
+					LogEmitter.FIRST_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {Character.valueOf(arg1),
+							Long.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void debug(final String format, final long arg1, final char arg2) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format, arg1, arg2,
+					LogEmitter.SECOND_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {Long.valueOf(arg1),
+							Character.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 */
+	public void debug(final String format, final Object arg1, final Object arg2,
+			final Object arg3) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format,
+					new Object[] {arg1, arg2, arg3});
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {arg1, arg2, arg3}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the DEBUG level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 * @param arg4 the fourth argument
+	 */
+	public void debug(final String format, final Object arg1, final Object arg2,
+			final Object arg3, final Object arg4) {
+		long skipped = admit(AndroidLogger.DEBUG);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.DEBUG, format,
+					new Object[] {arg1, arg2, arg3, arg4});
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.DEBUG, format,
+					new Object[] {arg1, arg2, arg3, arg4}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param msg the message
+	 */
+	public void info(final String msg) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, msg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, msg,
+					null, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param msg the message
+	 * @param t the exception to log
+	 */
+	public void info(final String msg, final Throwable t) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, msg, t);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, msg,
+					null, t, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void info(final String format, final Object arg) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {arg}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void info(final String format, final Object arg1,
+			final Object arg2) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format, arg1, arg2);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {arg1, arg2}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param args the arguments
+	 */
+	public void info(final String format, final Object[] args) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format, args);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					args, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void info(final String format, final long arg) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {Long.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void info(final String format, final char arg) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {Character.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void info(final String format, final double arg) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {Double.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void info(final String format, final float arg) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {Float.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void info(final String format, final long arg1, final long arg2) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format, arg1, arg2);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {Long.valueOf(arg1),
+							Long.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void info(final String format, final char arg1, final char arg2) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format, arg1, arg2,
+					LogEmitter.FIRST_IS_CHAR | LogEmitter.SECOND_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {Character.valueOf(arg1),
+							Character.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void info(final String format, final char arg1, final long arg2) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format, arg1, arg2,
+					LogEmitter.FIRST_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {Character.valueOf(arg1),
+							Long.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void info(final String format, final long arg1, final char arg2) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format, arg1, arg2,
+					LogEmitter.SECOND_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {Long.valueOf(arg1),
+							Character.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 */
+	public void info(final String format, final Object arg1, final Object arg2,
+			final Object arg3) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format,
+					new Object[] {arg1, arg2, arg3});
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {arg1, arg2, arg3}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the INFO level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 * @param arg4 the fourth argument
+	 */
+	public void info(final String format, final Object arg1, final Object arg2,
+			final Object arg3, final Object arg4) {
+		long skipped = admit(AndroidLogger.INFO);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.INFO, format,
+					new Object[] {arg1, arg2, arg3, arg4});
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.INFO, format,
+					new Object[] {arg1, arg2, arg3, arg4}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param msg the message
+	 */
+	public void warn(final String msg) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, msg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, msg,
+					null, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param msg the message
+	 * @param t the exception to log
+	 */
+	public void warn(final String msg, final Throwable t) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, msg, t);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, msg,
+					null, t, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void warn(final String format, final Object arg) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {arg}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void warn(final String format, final Object arg1,
+			final Object arg2) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format, arg1, arg2);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {arg1, arg2}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param args the arguments
+	 */
+	public void warn(final String format, final Object[] args) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format, args);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					args, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void warn(final String format, final long arg) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {Long.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void warn(final String format, final char arg) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {Character.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void warn(final String format, final double arg) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {Double.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void warn(final String format, final float arg) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {Float.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void warn(final String format, final long arg1, final long arg2) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format, arg1, arg2);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {Long.valueOf(arg1),
+							Long.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void warn(final String format, final char arg1, final char arg2) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format, arg1, arg2,
+					LogEmitter.FIRST_IS_CHAR | LogEmitter.SECOND_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {Character.valueOf(arg1),
+							Character.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void warn(final String format, final char arg1, final long arg2) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format, arg1, arg2,
+					LogEmitter.FIRST_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {Character.valueOf(arg1),
+							Long.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void warn(final String format, final long arg1, final char arg2) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format, arg1, arg2,
+					LogEmitter.SECOND_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {Long.valueOf(arg1),
+							Character.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 */
+	public void warn(final String format, final Object arg1, final Object arg2,
+			final Object arg3) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format,
+					new Object[] {arg1, arg2, arg3});
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {arg1, arg2, arg3}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the WARN level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 * @param arg4 the fourth argument
+	 */
+	public void warn(final String format, final Object arg1, final Object arg2,
+			final Object arg3, final Object arg4) {
+		long skipped = admit(AndroidLogger.WARN);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.WARN, format,
+					new Object[] {arg1, arg2, arg3, arg4});
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.WARN, format,
+					new Object[] {arg1, arg2, arg3, arg4}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param msg the message
+	 */
+	public void error(final String msg) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, msg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, msg,
+					null, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param msg the message
+	 * @param t the exception to log
+	 */
+	public void error(final String msg, final Throwable t) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, msg, t);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, msg,
+					null, t, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void error(final String format, final Object arg) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {arg}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void error(final String format, final Object arg1,
+			final Object arg2) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format, arg1, arg2);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {arg1, arg2}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param args the arguments
+	 */
+	public void error(final String format, final Object[] args) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format, args);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					args, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void error(final String format, final long arg) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {Long.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void error(final String format, final char arg) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {Character.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void error(final String format, final double arg) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {Double.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg the argument
+	 */
+	public void error(final String format, final float arg) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format, arg);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {Float.valueOf(arg)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void error(final String format, final long arg1, final long arg2) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format, arg1, arg2);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {Long.valueOf(arg1),
+							Long.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void error(final String format, final char arg1, final char arg2) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format, arg1, arg2,
+					LogEmitter.FIRST_IS_CHAR | LogEmitter.SECOND_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {Character.valueOf(arg1),
+							Character.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void error(final String format, final char arg1, final long arg2) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format, arg1, arg2,
+					LogEmitter.FIRST_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {Character.valueOf(arg1),
+							Long.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 */
+	public void error(final String format, final long arg1, final char arg2) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format, arg1, arg2,
+					LogEmitter.SECOND_IS_CHAR);
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {Long.valueOf(arg1),
+							Character.valueOf(arg2)}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 */
+	public void error(final String format, final Object arg1, final Object arg2,
+			final Object arg3) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format,
+					new Object[] {arg1, arg2, arg3});
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {arg1, arg2, arg3}, null, skipped);
+		}
+	}
+
+	/**
+	 * Log a message at the ERROR level if the rate limit allows.
+	 * @param format the format string
+	 * @param arg1 the first argument
+	 * @param arg2 the second argument
+	 * @param arg3 the third argument
+	 * @param arg4 the fourth argument
+	 */
+	public void error(final String format, final Object arg1, final Object arg2,
+			final Object arg3, final Object arg4) {
+		long skipped = admit(AndroidLogger.ERROR);
+		if (skipped == 0) {
+			emitter.emit(AndroidLogger.ERROR, format,
+					new Object[] {arg1, arg2, arg3, arg4});
+		} else if (skipped > 0) {
+			emitter.emitSkipped(AndroidLogger.ERROR, format,
+					new Object[] {arg1, arg2, arg3, arg4}, null, skipped);
+		}
+	}
+}
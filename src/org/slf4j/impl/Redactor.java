@@ -0,0 +1,207 @@
+package org.slf4j.impl;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import android.util.Log;
+
+/**
+ * <p>
+ * Masks sensitive text such as tokens, email addresses or ids in formatted
+ * messages. Patterns are configured in SLF4J.properties with lines of the
+ * form:
+ * </p>
+ *
+ * <pre>
+ * redact.pattern.&lt;name&gt;=&lt;regular expression&gt;
+ * </pre>
+ *
+ * <p>
+ * and matches are replaced with redact.mask, which defaults to "***". The
+ * patterns are compiled once into a single alternation, in order of their
+ * names, so each message is scanned in one pass however many patterns there
+ * are. A numbered backreference would point at the wrong group inside the
+ * alternation and a group name may only appear once in it, so a pattern
+ * using either is logged with a warning and scanned on its own. Such scans
+ * run side by side with the combined one and the earliest match wins, the
+ * combined patterns first where two start at the same place, so no pattern
+ * ever matches inside text another has already masked. Each of them costs
+ * another scan of the message, so keep them few. Matching runs over the
+ * message buffer with matchers kept per thread and replaces matches in
+ * place, so only enabled events pay for it and no copies of the message
+ * are made.
+ * </p>
+ */
+final class Redactor {
+
+	/** The prefix of all properties for redaction. */
+	static final String PROPERTY_PREFIX = "redact.";
+
+	/** The prefix of the pattern properties: redact.pattern. */
+	private static final String PATTERN_PREFIX = PROPERTY_PREFIX + "pattern.";
+
+	/** Property with the replacement for matches: redact.mask. */
+	private static final String MASK = PROPERTY_PREFIX + "mask";
+
+	/** The default replacement for matches. */
+	private static final String DEFAULT_MASK = "***";
+
+	/** Log tag for SLF4J itself. */
+	private static final String SLF4J_TAG = "slf4j";
+
+	/**
+	 * The patterns scanned for: the alternation of all that can be combined
+	 * first, then each that has to be scanned on its own.
+	 */
+	private final Pattern[] scans;
+
+	/** The replacement for matches. */
+	private final String mask;
+
+	/** Reusable matchers for each thread, one per scan. */
+	private final ThreadLocal<Matcher[]> matchers =
+			new ThreadLocal<Matcher[]>() {
+		@Override
+		protected Matcher[] initialValue() {
+			Matcher[] perScan = new Matcher[scans.length];
+			for (int i = 0; i < scans.length; i++) {
+				perScan[i] = scans[i].matcher("");
+			}
+			return perScan;
+		}
+	};
+
+	/**
+	 * @param ordered the patterns scanned for, in order of precedence
+	 * @param replacement the replacement for matches
+	 */
+	Redactor(final Pattern[] ordered, final String replacement) {
+		this.scans = ordered;
+		this.mask = replacement;
+	}
+
+	/**
+	 * Creates a redactor from the redact.* properties.
+	 * @param props the properties to read
+	 * @return the redactor or null if no valid patterns are configured
+	 */
+	static Redactor configure(final Properties props) {
+		// Sort so overlapping patterns always take precedence the same way.
+		TreeSet<String> names = new TreeSet<String>();
+		for (Enumeration<?> all = props.propertyNames();
+				all.hasMoreElements();) {
+			String name = (String) all.nextElement();
+			if (name.startsWith(PATTERN_PREFIX)) {
+				names.add(name);
+			}
+		}
+		StringBuilder combined = new StringBuilder();
+		ArrayList<Pattern> separate = new ArrayList<Pattern>();
+		for (String name : names) {
+			String regex = props.getProperty(name);
+			Pattern alone;
+			try {
+				alone = Pattern.compile(regex);
+			} catch (PatternSyntaxException e) {
+				Log.w(SLF4J_TAG, "Invalid redaction pattern: " + name + ": "
+						+ e.getDescription() + ". Ignoring it.");
+				continue;
+			}
+			String reason = null;
+			if (hasNumberedBackreference(regex)) {
+				reason = "it uses a numbered backreference";
+			} else {
+				int length = combined.length();
+				if (length > 0) {
+					combined.append('|');
+				}
+				combined.append("(?:").append(regex).append(')');
+				try {
+					Pattern.compile(combined.toString());
+				} catch (PatternSyntaxException e) {
+					// Such as a group name another pattern uses as well.
+					reason = e.getDescription();
+					combined.setLength(length);
+				}
+			}
+			if (reason != null) {
+				Log.w(SLF4J_TAG, "Redaction pattern " + name + " cannot be"
+						+ " combined with the others: " + reason
+						+ ". Scanning for it separately.");
+				separate.add(alone);
+			}
+			Log.d(SLF4J_TAG, "Redacting: " + name);
+		}
+		if (combined.length() > 0) {
+			separate.add(0, Pattern.compile(combined.toString()));
+		}
+		if (separate.isEmpty()) {
+			return null;
+		}
+		return new Redactor(separate.toArray(new Pattern[separate.size()]),
+				props.getProperty(MASK, DEFAULT_MASK));
+	}
+
+	/**
+	 * Looks for a backslash followed by a digit other than zero outside of
+	 * an escaped backslash. This may also find one in a quoted or bracketed
+	 * part, which only costs that pattern a scan of its own.
+	 * @param regex the regular expression
+	 * @return true if it may hold a numbered backreference
+	 */
+	private static boolean hasNumberedBackreference(final String regex) {
+		for (int i = 0; i < regex.length() - 1; i++) {
+			if (regex.charAt(i) == '\\') {
+				char next = regex.charAt(++i);
+				if (next >= '1' && next <= '9') {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Replaces every match in the buffer with the mask, taking the earliest
+	 * match of all scans each time and going on after the mask.
+	 * @param buffer the buffer holding the message
+	 * @param from the index to start matching at
+	 */
+	void redact(final StringBuilder buffer, final int from) {
+		Matcher[] perScan = matchers.get();
+		for (int i = 0; i < perScan.length; i++) {
+			perScan[i].reset(buffer);
+		}
+		int position = from;
+		while (position <= buffer.length()) {
+			Matcher first = null;
+			for (int i = 0; i < perScan.length; i++) {
+				// find(int) resets the matcher so it sees the new length.
+				Matcher matcher = perScan[i];
+				if (matcher.find(position)
+						&& (first == null || matcher.start() < first.start())) {
+					first = matcher;
+				}
+			}
+			if (first == null) {
+				break;
+			}
+			int start = first.start();
+			int end = first.end();
+			if (start == end) {
+				position = end + 1;
+			} else {
+				buffer.replace(start, end, mask);
+				position = start + mask.length();
+			}
+		}
+		for (int i = 0; i < perScan.length; i++) {
+			perScan[i].reset("");
+		}
+	}
+}
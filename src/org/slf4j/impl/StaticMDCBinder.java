@@ -1,11 +1,11 @@
 package org.slf4j.impl;
 
-import org.slf4j.helpers.NOPMDCAdapter;
 import org.slf4j.spi.MDCAdapter;
 
 
 /**
- * This implementation is bound to {@link NOPMDCAdapter}.
+ * This implementation is bound to {@link AndroidMDCAdapter}, which keeps the
+ * values for each thread, so %X{key} in layout.pattern has something to show.
  *
  * @author Ceki G&uuml;lc&uuml;
  */
@@ -25,16 +25,16 @@ public final class StaticMDCBinder {
 
 	/**
 	 * @return this method always returns an instance of
-	 * {@link NOPMDCAdapter}.
+	 * {@link AndroidMDCAdapter}.
 	 */
 	public MDCAdapter getMDCA() {
-		return new NOPMDCAdapter();
+		return new AndroidMDCAdapter();
 	}
 
 	/**
-	 * @return the name of the NOPMDCAdapter.
+	 * @return the name of the AndroidMDCAdapter.
 	 */
 	public String  getMDCAdapterClassStr() {
-		return NOPMDCAdapter.class.getName();
+		return AndroidMDCAdapter.class.getName();
 	}
 }
@@ -0,0 +1,171 @@
+package org.slf4j.impl;
+
+import java.util.Timer;
+import java.util.TimerTask;
+
+import android.util.Log;
+
+/**
+ * <p>
+ * A named stopwatch belonging to an {@link AndroidLogger}. Rather than
+ * logging a line for every measurement, durations are collected into a
+ * {@link LatencyHistogram} and a percentile summary is logged with the tag
+ * and level of the owning logger once per reporting interval.
+ * </p>
+ * <p>
+ * Stopwatches hold no per measurement state so a single instance may be
+ * shared between threads:
+ * </p>
+ *
+ * <pre>
+ * Stopwatch decode = ((AndroidLogger) logger).stopwatch("decode");
+ * ...
+ * long start = decode.start();
+ * doDecode();
+ * decode.stop(start);
+ * </pre>
+ *
+ * <p>
+ * Neither {@link #start()}, {@link #stop(long)} nor {@link #record(long)}
+ * allocate or report. Summaries are built and logged on a shared background
+ * thread once per interval, or when {@link #report()} is called.
+ * </p>
+ */
+public final class Stopwatch {
+
+	/** Nanoseconds in a microsecond. */
+	private static final long NANOS_PER_MICRO = 1000L;
+
+	/** Log tag for SLF4J itself. */
+	private static final String SLF4J_TAG = "slf4j";
+
+	/** The percentiles included in each summary. */
+	private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+	/** The names of the percentiles included in each summary. */
+	private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99"};
+
+	/** The logger we report through. */
+	private final AndroidLogger logger;
+
+	/** The name of this stopwatch. */
+	private final String name;
+
+	/** The histogram of recorded durations. */
+	private final LatencyHistogram histogram = new LatencyHistogram();
+
+	/** The bucket counts drained for a report, reused by every report. */
+	private final long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+
+	/** The minimum and maximum drained for a report. */
+	private final long[] range = new long[2];
+
+	/** The summary being built, reused by every report. */
+	private final StringBuilder summary = new StringBuilder();
+
+	/** Holds the thread reporting for all stopwatches, started on use. */
+	private static final class Reporter {
+		/** The timer reporting for all stopwatches. */
+		static final Timer TIMER = new Timer("slf4j-stopwatch", true);
+	}
+
+	/**
+	 * Package access allows only {@link AndroidLogger} to create stopwatches.
+	 * @param owner the logger to report through
+	 * @param stopwatchName the name of this stopwatch
+	 * @param intervalMillis the reporting interval or 0 for manual only
+	 */
+	Stopwatch(final AndroidLogger owner, final String stopwatchName,
+			final long intervalMillis) {
+		this.logger = owner;
+		this.name = stopwatchName;
+		if (intervalMillis > 0) {
+			Reporter.TIMER.scheduleAtFixedRate(new TimerTask() {
+				@Override
+				public void run() {
+					// An exception would end the thread shared by all
+					// stopwatches and fail any later scheduling.
+					try {
+						report();
+					} catch (RuntimeException e) {
+						Log.w(SLF4J_TAG, "Reporting stopwatch " + name
+								+ " failed", e);
+					}
+				}
+			}, intervalMillis, intervalMillis);
+		}
+	}
+
+	/**
+	 * @return the name of this stopwatch.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the current time to later pass to {@link #stop(long)}.
+	 */
+	public long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records the time elapsed since the given start.
+	 * @param startNanos the value returned by {@link #start()}
+	 * @return the elapsed time in nanoseconds
+	 */
+	public long stop(final long startNanos) {
+		long elapsed = System.nanoTime() - startNanos;
+		histogram.record(elapsed);
+		return elapsed;
+	}
+
+	/**
+	 * Records a duration measured elsewhere.
+	 * @param elapsedNanos the duration in nanoseconds
+	 */
+	public void record(final long elapsedNanos) {
+		histogram.record(elapsedNanos);
+	}
+
+	/**
+	 * Logs a summary of the values recorded since the last report and
+	 * resets the histogram. Nothing is logged if nothing was recorded.
+	 */
+	public synchronized void report() {
+		long total = histogram.drainTo(counts);
+		histogram.drainRange(range);
+		if (total == 0 || !logger.isOwnLevelEnabled()) {
+			return;
+		}
+		summary.setLength(0);
+		summary.append("timing ");
+		summary.append(name);
+		summary.append(": n=");
+		summary.append(total);
+		summary.append(" min=");
+		appendMicros(summary, range[0]);
+		for (int i = 0; i < PERCENTILES.length; i++) {
+			summary.append(' ');
+			summary.append(PERCENTILE_NAMES[i]);
+			summary.append('=');
+			appendMicros(summary, Math.min(range[1],
+					LatencyHistogram.percentile(counts, total,
+							PERCENTILES[i])));
+		}
+		summary.append(" max=");
+		appendMicros(summary, range[1]);
+		logger.logAtOwnLevel(summary.toString());
+	}
+
+	/**
+	 * @param buffer the buffer to append to
+	 * @param nanos the duration to append in microseconds
+	 */
+	private static void appendMicros(final StringBuilder buffer,
+			final long nanos) {
+		buffer.append(nanos / NANOS_PER_MICRO);
+		buffer.append("us");
+	}
+}
@@ -0,0 +1,355 @@
+package org.slf4j.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * Support for tokenized logging. A build step collects the literal message
+ * templates passed to the logger into a dictionary file, see
+ * TemplateDictionaryBuilder in the tools directory. With
+ * tokenized=true in SLF4J.properties and the dictionary packaged next to it,
+ * messages whose template is in the dictionary are logged as a record
+ * holding only the template id and the arguments:
+ * </p>
+ *
+ * <pre>
+ * record := '~' id:8 hex digits ('|' argument)*
+ * </pre>
+ *
+ * <p>
+ * where '\' and '|' in arguments are escaped with a '\', and newlines and
+ * carriage returns as \n and \r so a record stays on one line. The id of a
+ * template is its String.hashCode(), which is stable, cached in the string
+ * and so free to compute at runtime. A message is only logged as a record
+ * if it equals the template with its id, so runtime strings which happen to
+ * share an id with a template stay readable. Templates not in the
+ * dictionary, such as messages built at runtime, are logged as plain text.
+ * TokenDecoder in the tools directory turns records back into messages.
+ * </p>
+ * <p>
+ * The dictionary has one template per line: the id, a tab and the template
+ * with '\', newlines, carriage returns and tabs escaped as in Java.
+ * </p>
+ */
+final class TemplateTokens {
+
+	/** The name of the dictionary file. */
+	static final String DICTIONARY_FILE_NAME = "SLF4J.dictionary";
+
+	/** Starts a record. */
+	static final char RECORD_START = '~';
+
+	/** Starts each argument in a record. */
+	static final char SEPARATOR = '|';
+
+	/** Escapes the next character in an argument. */
+	static final char ESCAPE = '\\';
+
+	/** The number of hex digits in an id. */
+	static final int ID_DIGITS = 8;
+
+	/** Hex digits for rendering ids. */
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/** The sorted ids of the known templates. */
+	private final int[] ids;
+
+	/** The template for each id, interned. */
+	private final String[] templates;
+
+	/**
+	 * @param knownIds the sorted ids of the known templates
+	 * @param knownTemplates the template for each id
+	 */
+	private TemplateTokens(final int[] knownIds,
+			final String[] knownTemplates) {
+		this.ids = knownIds;
+		this.templates = knownTemplates;
+	}
+
+	/**
+	 * Loads the templates from a dictionary.
+	 * @param in the dictionary
+	 * @return the known templates
+	 * @throws IOException if reading fails or the dictionary is malformed
+	 */
+	static TemplateTokens load(final InputStream in) throws IOException {
+		BufferedReader reader =
+				new BufferedReader(new InputStreamReader(in, "UTF-8"));
+		Map<Integer, String> known = new TreeMap<Integer, String>();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.length() == 0) {
+				continue;
+			}
+			String template;
+			try {
+				if (line.charAt(ID_DIGITS) != '\t') {
+					throw new IllegalArgumentException();
+				}
+				template = unescape(line.substring(ID_DIGITS + 1));
+				if (parseId(line.substring(0, ID_DIGITS))
+						!= idOf(template)) {
+					throw new IllegalArgumentException();
+				}
+			} catch (RuntimeException e) {
+				throw new IOException("Malformed dictionary line: " + line);
+			}
+			// Literals are interned, so equals() on a hit is usually ==.
+			known.put(idOf(template), template.intern());
+		}
+		int[] knownIds = new int[known.size()];
+		String[] knownTemplates = new String[known.size()];
+		int count = 0;
+		for (Map.Entry<Integer, String> entry : known.entrySet()) {
+			knownIds[count] = entry.getKey();
+			knownTemplates[count++] = entry.getValue();
+		}
+		return new TemplateTokens(knownIds, knownTemplates);
+	}
+
+	/**
+	 * @return the number of known templates.
+	 */
+	int size() {
+		return ids.length;
+	}
+
+	/**
+	 * @param template the template
+	 * @return true if the template is in the dictionary.
+	 */
+	boolean contains(final String template) {
+		if (template == null) {
+			return false;
+		}
+		int index = Arrays.binarySearch(ids, template.hashCode());
+		return index >= 0 && templates[index].equals(template);
+	}
+
+	/**
+	 * @param template a template
+	 * @return the template escaped for a dictionary line
+	 */
+	static String escape(final String template) {
+		StringBuilder escaped = new StringBuilder(template.length());
+		for (int i = 0; i < template.length(); i++) {
+			char c = template.charAt(i);
+			switch (c) {
+			case '\\':
+				escaped.append("\\\\");
+				break;
+			case '\n':
+				escaped.append("\\n");
+				break;
+			case '\r':
+				escaped.append("\\r");
+				break;
+			case '\t':
+				escaped.append("\\t");
+				break;
+			default:
+				escaped.append(c);
+				break;
+			}
+		}
+		return escaped.toString();
+	}
+
+	/**
+	 * @param escaped a template from a dictionary line
+	 * @return the template
+	 */
+	static String unescape(final String escaped) {
+		StringBuilder template = new StringBuilder(escaped.length());
+		for (int i = 0; i < escaped.length(); i++) {
+			char c = escaped.charAt(i);
+			if (c == '\\' && i + 1 < escaped.length()) {
+				c = unescape(escaped.charAt(++i));
+			}
+			template.append(c);
+		}
+		return template.toString();
+	}
+
+	/**
+	 * @param escaped the character following a '\' in a dictionary line or
+	 * a record argument
+	 * @return the character it stands for
+	 */
+	static char unescape(final char escaped) {
+		switch (escaped) {
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 't':
+			return '\t';
+		default:
+			return escaped;
+		}
+	}
+
+	/**
+	 * @param template the template
+	 * @return the id of the template
+	 */
+	static int idOf(final String template) {
+		return template.hashCode();
+	}
+
+	/**
+	 * @param hex the id as hex digits
+	 * @return the id
+	 */
+	static int parseId(final String hex) {
+		return (int) Long.parseLong(hex, 16);
+	}
+
+	/**
+	 * Appends the start of the record for a template.
+	 * @param buffer the buffer to append to
+	 * @param template the template
+	 */
+	static void appendId(final StringBuilder buffer, final String template) {
+		int id = idOf(template);
+		buffer.append(RECORD_START);
+		for (int shift = (ID_DIGITS - 1) * 4; shift >= 0; shift -= 4) {
+			buffer.append(HEX[(id >>> shift) & 0xf]);
+		}
+	}
+
+	/**
+	 * @param buffer the buffer to append to
+	 * @param argument the argument to append
+	 */
+	static void appendArgument(final StringBuilder buffer,
+			final Object argument) {
+		buffer.append(SEPARATOR);
+		if (argument instanceof String) {
+			// Most arguments are strings, which are scanned before copying.
+			appendEscaped(buffer, (String) argument, 0);
+			return;
+		}
+		int start = buffer.length();
+		MessageBuffer.appendObject(buffer, argument);
+		for (int i = start; i < buffer.length(); i++) {
+			if (isEscaped(buffer.charAt(i))) {
+				// Copy the rest once rather than shift it for every escape.
+				String rest = buffer.substring(i);
+				buffer.setLength(i);
+				appendEscaped(buffer, rest, 0);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @param c a character of an argument
+	 * @return true if the character is escaped in records
+	 */
+	private static boolean isEscaped(final char c) {
+		return c == SEPARATOR || c == ESCAPE || c == '\n' || c == '\r';
+	}
+
+	/**
+	 * Appends text, escaping the characters from an index on.
+	 * @param buffer the buffer to append to
+	 * @param text the text of an argument
+	 * @param from the index of the first character which may be escaped
+	 */
+	private static void appendEscaped(final StringBuilder buffer,
+			final String text, final int from) {
+		int length = text.length();
+		int i = from;
+		while (i < length && !isEscaped(text.charAt(i))) {
+			i++;
+		}
+		buffer.append(text, 0, i);
+		for (; i < length; i++) {
+			appendEscaped(buffer, text.charAt(i));
+		}
+	}
+
+	/**
+	 * @param buffer the buffer to append to
+	 * @param c the character of an argument to append
+	 */
+	private static void appendEscaped(final StringBuilder buffer,
+			final char c) {
+		switch (c) {
+		case SEPARATOR:
+		case ESCAPE:
+			buffer.append(ESCAPE).append(c);
+			break;
+		case '\n':
+			buffer.append(ESCAPE).append('n');
+			break;
+		case '\r':
+			buffer.append(ESCAPE).append('r');
+			break;
+		default:
+			buffer.append(c);
+			break;
+		}
+	}
+
+	/**
+	 * @param buffer the buffer to append to
+	 * @param arguments the arguments to append
+	 */
+	static void appendArguments(final StringBuilder buffer,
+			final Object[] arguments) {
+		if (arguments != null) {
+			for (int i = 0; i < arguments.length; i++) {
+				appendArgument(buffer, arguments[i]);
+			}
+		}
+	}
+
+	/**
+	 * @param buffer the buffer to append to
+	 * @param argument the argument to append
+	 */
+	static void appendArgument(final StringBuilder buffer,
+			final long argument) {
+		buffer.append(SEPARATOR);
+		buffer.append(argument);
+	}
+
+	/**
+	 * @param buffer the buffer to append to
+	 * @param argument the argument to append
+	 */
+	static void appendArgument(final StringBuilder buffer,
+			final double argument) {
+		buffer.append(SEPARATOR);
+		buffer.append(argument);
+	}
+
+	/**
+	 * @param buffer the buffer to append to
+	 * @param argument the argument to append
+	 */
+	static void appendArgument(final StringBuilder buffer,
+			final float argument) {
+		buffer.append(SEPARATOR);
+		buffer.append(argument);
+	}
+
+	/**
+	 * @param buffer the buffer to append to
+	 * @param argument the argument to append
+	 */
+	static void appendArgument(final StringBuilder buffer,
+			final char argument) {
+		buffer.append(SEPARATOR);
+		appendEscaped(buffer, argument);
+	}
+}
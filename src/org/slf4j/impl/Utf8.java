@@ -0,0 +1,64 @@
+package org.slf4j.impl;
+
+/**
+ * Encodes strings as UTF-8 straight into a byte array, without the
+ * temporary arrays String.getBytes creates.
+ */
+final class Utf8 {
+
+	/** The most bytes a char takes; a surrogate pair takes 4 for 2 chars. */
+	static final int MAX_BYTES_PER_CHAR = 3;
+
+	/**
+	 * No instances.
+	 */
+	private Utf8() {
+	}
+
+	/**
+	 * Encodes as many whole characters of a string as fit before the limit.
+	 * @param buffer the buffer to write to
+	 * @param at the index to write at
+	 * @param text the string to encode
+	 * @param chars the number of chars to encode
+	 * @param limit the index no byte may be written at
+	 * @return the index following the encoded string
+	 */
+	static int encode(final byte[] buffer, final int at, final String text,
+			final int chars, final int limit) {
+		int pos = at;
+		for (int i = 0; i < chars; i++) {
+			char c = text.charAt(i);
+			if (c < 0x80) {
+				if (pos + 1 > limit) {
+					break;
+				}
+				buffer[pos++] = (byte) c;
+			} else if (c < 0x800) {
+				if (pos + 2 > limit) {
+					break;
+				}
+				buffer[pos++] = (byte) (0xc0 | (c >> 6));
+				buffer[pos++] = (byte) (0x80 | (c & 0x3f));
+			} else if (Character.isHighSurrogate(c) && i + 1 < chars
+					&& Character.isLowSurrogate(text.charAt(i + 1))) {
+				if (pos + 4 > limit) {
+					break;
+				}
+				int code = Character.toCodePoint(c, text.charAt(++i));
+				buffer[pos++] = (byte) (0xf0 | (code >> 18));
+				buffer[pos++] = (byte) (0x80 | ((code >> 12) & 0x3f));
+				buffer[pos++] = (byte) (0x80 | ((code >> 6) & 0x3f));
+				buffer[pos++] = (byte) (0x80 | (code & 0x3f));
+			} else {
+				if (pos + 3 > limit) {
+					break;
+				}
+				buffer[pos++] = (byte) (0xe0 | (c >> 12));
+				buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+				buffer[pos++] = (byte) (0x80 | (c & 0x3f));
+			}
+		}
+		return pos;
+	}
+}
@@ -0,0 +1,249 @@
+package org.slf4j.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * Measures the bytes allocated per call with the thread allocation counter
+ * of the JVM and fails when a call allocates more than its recorded budget.
+ * Disabled calls, skipped rate limited calls and stopwatch recordings must
+ * not allocate at all. Enabled calls are allowed what formatting the
+ * message needs, with the entries going to the stand-in android.util.Log
+ * which discards them.
+ * </p>
+ * <p>
+ * The budgets are for a 64 bit HotSpot JVM with compressed references and
+ * compact strings. Lower a budget when a change makes a call cheaper.
+ * </p>
+ */
+public final class AllocationTest {
+
+	/** The number of calls measured for each case. */
+	private static final int CALLS = 200000;
+
+	/** Allowance for the counter itself, in bytes per case. */
+	private static final long SLACK = 4096;
+
+	/**
+	 * The number of times each case is measured. The JIT may still be
+	 * recompiling during a round, so the lowest is checked.
+	 */
+	private static final int ROUNDS = 3;
+
+	/** A call whose allocation is measured. */
+	private interface Call {
+		/**
+		 * @param i the number of the call
+		 */
+		void run(int i);
+	}
+
+	/** The allocation counter. */
+	private static com.sun.management.ThreadMXBean sThreads;
+
+	/** The number of cases over budget. */
+	private static int sFailures;
+
+	/**
+	 * No instances.
+	 */
+	private AllocationTest() {
+	}
+
+	/**
+	 * @param args ignored
+	 */
+	public static void main(final String[] args) {
+		sThreads = (com.sun.management.ThreadMXBean)
+				ManagementFactory.getThreadMXBean();
+		Assert.isTrue(sThreads.isThreadAllocatedMemorySupported(),
+				"Thread allocation counters are not supported");
+		sThreads.setThreadAllocatedMemoryEnabled(true);
+
+		final AndroidLogger disabled =
+				(AndroidLogger) LoggerFactory.getLogger("alloc.Disabled");
+		final AndroidLogger enabled =
+				(AndroidLogger) LoggerFactory.getLogger("alloc.Enabled");
+		final Object arg = "argument";
+		final Object[] array = {arg, arg, arg};
+		final Throwable failure = new IllegalStateException("alloc");
+
+		measure("disabled isDebugEnabled()", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				if (disabled.isDebugEnabled()) {
+					throw new AssertionError();
+				}
+			}
+		});
+		measure("disabled debug(String)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				disabled.debug("message");
+			}
+		});
+		measure("disabled debug(String, Object)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				disabled.debug("a={}", arg);
+			}
+		});
+		measure("disabled debug(String, Object, Object)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				disabled.debug("a={} b={}", arg, arg);
+			}
+		});
+		measure("disabled debug(String, Object x3)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				disabled.debug("a={} b={} c={}", arg, arg, arg);
+			}
+		});
+		measure("disabled debug(String, Object x4)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				disabled.debug("a={} b={} c={} d={}", arg, arg, arg, arg);
+			}
+		});
+		measure("disabled debug(String, Object[])", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				disabled.debug("a={} b={} c={}", array);
+			}
+		});
+		measure("disabled debug(String, Throwable)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				disabled.debug("failed", failure);
+			}
+		});
+		measure("disabled debug(String, long)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				disabled.debug("i={}", i);
+			}
+		});
+		measure("disabled debug(String, double)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				disabled.debug("d={}", i * 0.5);
+			}
+		});
+		measure("disabled debug(String, long, long)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				disabled.debug("i={} j={}", i, i + 1L);
+			}
+		});
+
+		final RateLimitedLogger everyMany = enabled.every(CALLS * 10);
+		measure("skipped every(n).debug(String, long)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				everyMany.debug("i={}", i);
+			}
+		});
+		final RateLimitedLogger everyPair = enabled.every(CALLS * 10);
+		measure("skipped every(n).debug(String, long, long)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				everyPair.debug("i={} j={}", i, i + 1L);
+			}
+		});
+		final RateLimitedLogger everyDouble = enabled.every(CALLS * 10);
+		measure("skipped every(n).debug(String, double)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				everyDouble.debug("d={}", i * 0.5);
+			}
+		});
+		final RateLimitedLogger hourly = enabled.atMostEvery(1, TimeUnit.HOURS);
+		measure("skipped atMostEvery(t).debug(String, Object)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				hourly.debug("a={}", arg);
+			}
+		});
+		final Stopwatch stopwatch = enabled.stopwatch("alloc");
+		measure("stopwatch stop(start())", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				stopwatch.stop(stopwatch.start());
+			}
+		});
+
+		measure("enabled debug(String)", 0, new Call() {
+			@Override
+			public void run(final int i) {
+				enabled.debug("message");
+			}
+		});
+		measure("enabled debug(String, long)", 56, new Call() {
+			@Override
+			public void run(final int i) {
+				enabled.debug("i={}", i);
+			}
+		});
+		measure("enabled debug(String, double)", 64, new Call() {
+			@Override
+			public void run(final int i) {
+				enabled.debug("d={}", i * 0.5);
+			}
+		});
+		measure("enabled debug(String, long, long)", 64, new Call() {
+			@Override
+			public void run(final int i) {
+				enabled.debug("i={} j={}", i, i + 1L);
+			}
+		});
+		measure("enabled debug(String, Object)", 248, new Call() {
+			@Override
+			public void run(final int i) {
+				enabled.debug("a={}", arg);
+			}
+		});
+		measure("enabled debug(String, Object x3)", 376, new Call() {
+			@Override
+			public void run(final int i) {
+				enabled.debug("a={} b={} c={}", arg, arg, arg);
+			}
+		});
+
+		Assert.equal(0, sFailures, "Cases over budget");
+		System.out.println("AllocationTest: OK");
+	}
+
+	/**
+	 * Runs a call until compiled, then measures and checks its allocation.
+	 * @param name the name of the case
+	 * @param budget the most bytes a call may allocate
+	 * @param call the call to measure
+	 */
+	private static void measure(final String name, final long budget,
+			final Call call) {
+		for (int i = 0; i < CALLS; i++) {
+			call.run(i);
+		}
+		long id = Thread.currentThread().getId();
+		long allocated = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long before = sThreads.getThreadAllocatedBytes(id);
+			for (int i = 0; i < CALLS; i++) {
+				call.run(i);
+			}
+			allocated = Math.min(allocated,
+					sThreads.getThreadAllocatedBytes(id) - before);
+		}
+		boolean over = allocated > budget * CALLS + SLACK;
+		System.out.println(String.format("%-46s %7.1f bytes/call"
+				+ " (budget %d)%s", name, (double) allocated / CALLS, budget,
+				over ? " OVER BUDGET" : ""));
+		if (over) {
+			sFailures++;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package org.slf4j.impl;
+
+/**
+ * The checks shared by the tests. The tests are plain programs run by the
+ * test target of build.xml and fail by throwing an AssertionError.
+ */
+final class Assert {
+
+	/**
+	 * No instances.
+	 */
+	private Assert() {
+	}
+
+	/**
+	 * @param condition the condition which must hold
+	 * @param message what failed
+	 */
+	static void isTrue(final boolean condition, final String message) {
+		if (!condition) {
+			throw new AssertionError(message);
+		}
+	}
+
+	/**
+	 * @param expected the expected value
+	 * @param actual the actual value
+	 * @param what what is being compared
+	 */
+	static void equal(final Object expected, final Object actual,
+			final String what) {
+		if (expected == null ? actual != null : !expected.equals(actual)) {
+			throw new AssertionError(what + ": expected <" + expected
+					+ "> but was <" + actual + ">");
+		}
+	}
+
+	/**
+	 * @param expected the expected value
+	 * @param actual the actual value
+	 * @param what what is being compared
+	 */
+	static void equal(final long expected, final long actual,
+			final String what) {
+		if (expected != actual) {
+			throw new AssertionError(what + ": expected <" + expected
+					+ "> but was <" + actual + ">");
+		}
+	}
+}
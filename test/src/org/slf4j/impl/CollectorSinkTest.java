@@ -0,0 +1,285 @@
+package org.slf4j.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams events to a stand-in collector listening on the loopback
+ * interface and checks what it receives: frames with and without
+ * compression, the count of events dropped when the buffer is full and
+ * events too long for a frame being cut rather than dropped.
+ */
+public final class CollectorSinkTest {
+
+	/** How long to wait for the sink to flush and for the collector. */
+	private static final int TIMEOUT_MILLIS = 10000;
+
+	/** Long enough that batches are only sent when the sink closes. */
+	private static final long NEVER = 60000;
+
+	/** One event as received by the collector. */
+	private static final class Event {
+		/** The level of the event. */
+		private final int level;
+		/** The time of the event. */
+		private final long millis;
+		/** The tag of the event. */
+		private final String tag;
+		/** The message of the event. */
+		private final String message;
+
+		/**
+		 * @param eventLevel the level of the event
+		 * @param eventMillis the time of the event
+		 * @param eventTag the tag of the event
+		 * @param eventMessage the message of the event
+		 */
+		Event(final int eventLevel, final long eventMillis,
+				final String eventTag, final String eventMessage) {
+			this.level = eventLevel;
+			this.millis = eventMillis;
+			this.tag = eventTag;
+			this.message = eventMessage;
+		}
+	}
+
+	/** The number of events the collector was told were dropped. */
+	private static int sDropped;
+
+	/**
+	 * No instances.
+	 */
+	private CollectorSinkTest() {
+	}
+
+	/**
+	 * @param args ignored
+	 * @throws Exception if the test fails
+	 */
+	public static void main(final String[] args) throws Exception {
+		ServerSocket server = new ServerSocket(0, 8,
+				InetAddress.getByName("127.0.0.1"));
+		server.setSoTimeout(TIMEOUT_MILLIS);
+		try {
+			checkEvents(server, false);
+			checkEvents(server, true);
+			checkDropped(server);
+			checkTruncated(server);
+		} finally {
+			server.close();
+		}
+		System.out.println("CollectorSinkTest: OK");
+	}
+
+	/**
+	 * Checks that events arrive intact.
+	 * @param server the stand-in collector
+	 * @param compress should the sink deflate its batches
+	 * @throws IOException if the collector fails
+	 * @throws InterruptedException if interrupted
+	 */
+	private static void checkEvents(final ServerSocket server,
+			final boolean compress) throws IOException, InterruptedException {
+		CollectorSink sink = open(server, 4096, compress);
+		long before = System.currentTimeMillis();
+		String unicode = "\u03c0 \u2248 3.14 \ud83d\ude00 caf\u00e9";
+		sink.write(AndroidLogger.INFO, "tag", "hello", null);
+		sink.write(AndroidLogger.WARN, "t\u00e4g", unicode, null);
+		sink.write(AndroidLogger.ERROR, "tag", "boom",
+				new IllegalStateException("cause"));
+		sink.write(AndroidLogger.DEBUG, "tag", null, null);
+		for (int i = 0; i < 20; i++) {
+			sink.write(AndroidLogger.INFO, "repeat", "message " + i, null);
+		}
+		List<Event> events = collect(server, sink);
+		long after = System.currentTimeMillis();
+
+		String mode = compress ? "deflated " : "plain ";
+		Assert.equal(24, events.size(), mode + "events");
+		Assert.equal(0, sDropped, mode + "dropped");
+		check(events.get(0), AndroidLogger.INFO, "tag", "hello");
+		check(events.get(1), AndroidLogger.WARN, "t\u00e4g", unicode);
+		Event error = events.get(2);
+		Assert.isTrue(error.message.startsWith(
+				"boom\njava.lang.IllegalStateException: cause"),
+				"Stack trace appended: " + error.message);
+		check(events.get(3), AndroidLogger.DEBUG, "tag", "null");
+		for (int i = 0; i < 20; i++) {
+			check(events.get(4 + i), AndroidLogger.INFO, "repeat",
+					"message " + i);
+		}
+		for (Event event : events) {
+			Assert.isTrue(event.millis >= before && event.millis <= after,
+					"Time of " + event.message);
+		}
+	}
+
+	/**
+	 * Checks that events below WARN are dropped and counted when the
+	 * buffer is full.
+	 * @param server the stand-in collector
+	 * @throws IOException if the collector fails
+	 * @throws InterruptedException if interrupted
+	 */
+	private static void checkDropped(final ServerSocket server)
+			throws IOException, InterruptedException {
+		// Each frame takes 26 bytes but reserves its worst case of 48, so
+		// nine fit in 256 bytes.
+		CollectorSink sink = open(server, 256, false);
+		for (int i = 0; i < 12; i++) {
+			sink.write(AndroidLogger.DEBUG, "T", "message:" + (char) ('a' + i)
+					+ "!", null);
+		}
+		List<Event> events = collect(server, sink);
+		Assert.equal(9, events.size(), "Events kept");
+		Assert.equal(3, sDropped, "Events dropped");
+		for (int i = 0; i < events.size(); i++) {
+			check(events.get(i), AndroidLogger.DEBUG, "T",
+					"message:" + (char) ('a' + i) + "!");
+		}
+	}
+
+	/**
+	 * Checks that events longer than a frame are cut on a character
+	 * boundary.
+	 * @param server the stand-in collector
+	 * @throws IOException if the collector fails
+	 * @throws InterruptedException if interrupted
+	 */
+	private static void checkTruncated(final ServerSocket server)
+			throws IOException, InterruptedException {
+		// A frame may take a quarter of the buffer, 64 bytes, which leaves
+		// 48 for the message after the length, header and tag. Four such
+		// frames fill the batch and wake the sender, which would then race
+		// the writes after them, so each sink gets three.
+		String[] texts = {"x", "\u00e9", "\u20ac", "\ud83d\ude00", "ab\u20ac"};
+		int[] kept = {48, 24, 16, 24, 29};
+		String[] messages = new String[texts.length + 1];
+		String[] expected = new String[texts.length + 1];
+		for (int i = 0; i < texts.length; i++) {
+			messages[i] = repeat(texts[i], 1000);
+			expected[i] = messages[i].substring(0, kept[i]);
+		}
+		messages[texts.length] = repeat("\u20ac", 15) + "xyz";
+		expected[texts.length] = messages[texts.length];
+		for (int from = 0; from < messages.length; from += 3) {
+			CollectorSink sink = open(server, 256, false);
+			for (int i = from; i < from + 3; i++) {
+				sink.write(AndroidLogger.INFO, "T", messages[i], null);
+			}
+			List<Event> events = collect(server, sink);
+			Assert.equal(3, events.size(), "Events kept");
+			Assert.equal(0, sDropped, "Events dropped");
+			for (int i = 0; i < 3; i++) {
+				check(events.get(i), AndroidLogger.INFO, "T",
+						expected[from + i]);
+			}
+		}
+	}
+
+	/**
+	 * @param text the text to repeat
+	 * @param times how often to repeat it
+	 * @return the repeated text
+	 */
+	private static String repeat(final String text, final int times) {
+		StringBuilder sb = new StringBuilder(text.length() * times);
+		for (int i = 0; i < times; i++) {
+			sb.append(text);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * @param server the stand-in collector
+	 * @param bufferBytes the buffer and batch size of the sink
+	 * @param compress should the sink deflate its batches
+	 * @return a sink sending to the collector once it is closed
+	 */
+	private static CollectorSink open(final ServerSocket server,
+			final int bufferBytes, final boolean compress) {
+		return new CollectorSink(InetSocketAddress.createUnresolved(
+				"127.0.0.1", server.getLocalPort()), bufferBytes, NEVER,
+				bufferBytes, 0, compress);
+	}
+
+	/**
+	 * Closes the sink, which sends what it buffered, and reads everything
+	 * the collector received until the sink disconnects.
+	 * @param server the stand-in collector
+	 * @param sink the sink to close
+	 * @return the events received
+	 * @throws IOException if the collector fails
+	 * @throws InterruptedException if interrupted
+	 */
+	private static List<Event> collect(final ServerSocket server,
+			final CollectorSink sink)
+			throws IOException, InterruptedException {
+		sink.close(TIMEOUT_MILLIS);
+		List<Event> events = new ArrayList<Event>();
+		sDropped = 0;
+		Socket socket = server.accept();
+		try {
+			socket.setSoTimeout(TIMEOUT_MILLIS);
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			int[] dropped = new int[1];
+			while (true) {
+				byte[] frames;
+				try {
+					frames = CollectorSink.readBatch(in, dropped);
+				} catch (EOFException e) {
+					break;
+				}
+				sDropped += dropped[0];
+				decode(frames, events);
+			}
+		} finally {
+			socket.close();
+		}
+		return events;
+	}
+
+	/**
+	 * @param frames the frames of a batch
+	 * @param events the list to add the events to
+	 * @throws IOException if a frame is malformed
+	 */
+	private static void decode(final byte[] frames, final List<Event> events)
+			throws IOException {
+		DataInputStream in = new DataInputStream(
+				new ByteArrayInputStream(frames));
+		while (in.available() > 0) {
+			int length = in.readInt();
+			int level = in.readByte();
+			long millis = in.readLong();
+			byte[] tag = new byte[in.readUnsignedShort()];
+			in.readFully(tag);
+			byte[] message = new byte[length - CollectorSink.FRAME_HEADER
+					- tag.length];
+			in.readFully(message);
+			events.add(new Event(level, millis, new String(tag, "UTF-8"),
+					new String(message, "UTF-8")));
+		}
+	}
+
+	/**
+	 * @param event the event received
+	 * @param level the expected level
+	 * @param tag the expected tag
+	 * @param message the expected message
+	 */
+	private static void check(final Event event, final int level,
+			final String tag, final String message) {
+		Assert.equal(level, event.level, "Level of " + message);
+		Assert.equal(tag, event.tag, "Tag of " + message);
+		Assert.equal(message, event.message, "Message");
+	}
+}
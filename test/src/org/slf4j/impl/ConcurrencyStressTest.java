@@ -0,0 +1,393 @@
+package org.slf4j.impl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.slf4j.helpers.BasicMarkerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import android.util.Log;
+
+/**
+ * <p>
+ * Hammers the factory and every log method from many threads at once,
+ * starting before AndroidLogger is initialized so the threads also race
+ * the loading of the configuration in test/resources/SLF4J.properties.
+ * SLF4J itself is bound first since LoggerFactory hands out substitute
+ * loggers while its own initialization is in progress.
+ * </p>
+ * <p>
+ * Checks that every logger is created exactly once, that every logger has
+ * the level configured for its tag and that every enabled call logs
+ * exactly what MessageFormatter would produce, with the right priority and
+ * tag, on the calling thread, while disabled calls log nothing.
+ * </p>
+ */
+public final class ConcurrencyStressTest {
+
+	/** The number of threads. */
+	private static final int THREADS = 16;
+
+	/** The number of unconfigured loggers each thread fetches. */
+	private static final int NAMES = 256;
+
+	/** The number of times each thread calls every log method. */
+	private static final int ROUNDS = 10;
+
+	/** The format used for every call. */
+	private static final String FORMAT = "t={} a={} b={} c={} d={}";
+
+	/** The log methods, in level order. */
+	private static final String[] LEVELS = {"trace", "debug", "info",
+		"warn", "error"};
+
+	/** The Android priority of each of the log methods. */
+	private static final int[] PRIORITIES = {Log.VERBOSE, Log.DEBUG,
+		Log.INFO, Log.WARN, Log.ERROR};
+
+	/** The configured loggers: name, expected tag and expected level. */
+	private static final Object[][] CONFIGURED = {
+		{"stress.Trace", "stress.Trace", AndroidLogger.TRACE},
+		{"stress.Debug", "stress.Debug", AndroidLogger.DEBUG},
+		{"stress.Default", "stress.Default", AndroidLogger.INFO},
+		{"stress.Warn", "stress.Warn", AndroidLogger.WARN},
+		{"stress.Error", "stress.Error", AndroidLogger.ERROR},
+		{"stress.Off", "stress.Off", AndroidLogger.DISABLED},
+		{"stress.a.really.long.package.Shortened", "s.a.r.l.p.Shortened",
+			AndroidLogger.WARN},
+	};
+
+	/** The marker passed to the marker methods. */
+	private static final Marker MARKER =
+			new BasicMarkerFactory().getMarker("stress");
+
+	/** The throwable passed to the throwable methods. */
+	private static final Throwable FAILURE =
+			new IllegalStateException("stress");
+
+	/** The number of times each tag was created. */
+	private static final ConcurrentHashMap<String, AtomicInteger> CREATED =
+			new ConcurrentHashMap<String, AtomicInteger>();
+
+	/** The first logger returned for each name. */
+	private static final ConcurrentHashMap<String, Logger> LOGGERS =
+			new ConcurrentHashMap<String, Logger>();
+
+	/** Everything that went wrong. */
+	private static final ConcurrentLinkedQueue<String> PROBLEMS =
+			new ConcurrentLinkedQueue<String>();
+
+	/** The entry the current thread expects next. */
+	private static final ThreadLocal<Expected> EXPECTED =
+			new ThreadLocal<Expected>() {
+		@Override
+		protected Expected initialValue() {
+			return new Expected();
+		}
+	};
+
+	/** An entry a thread expects to be logged. */
+	private static final class Expected {
+		/** The expected priority. */
+		private int priority;
+		/** The expected tag. */
+		private String tag;
+		/** The expected message or null if nothing should be logged. */
+		private String message;
+		/** Has the entry been logged. */
+		private boolean logged;
+	}
+
+	/**
+	 * No instances.
+	 */
+	private ConcurrencyStressTest() {
+	}
+
+	/**
+	 * @param args ignored
+	 * @throws Exception if the test fails
+	 */
+	public static void main(final String[] args) throws Exception {
+		Log.setListener(new Log.Listener() {
+			@Override
+			public void println(final int priority, final String tag,
+					final String msg) {
+				check(priority, tag, msg);
+			}
+		});
+		LoggerFactory.getILoggerFactory();
+		final Method[] methods = logMethods();
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			final int thread = t;
+			threads[t] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						hammer(thread, methods);
+					} catch (Throwable e) {
+						PROBLEMS.add("Thread " + thread + " failed: " + e);
+					}
+				}
+			}, "stress-" + t);
+			threads[t].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		Log.setListener(null);
+
+		for (int i = 0; i < NAMES; i++) {
+			checkCreatedOnce("stress.n" + i);
+		}
+		for (Object[] configured : CONFIGURED) {
+			checkCreatedOnce((String) configured[1]);
+		}
+		if (!PROBLEMS.isEmpty()) {
+			int shown = 0;
+			for (String problem : PROBLEMS) {
+				System.err.println(problem);
+				if (++shown == 20) {
+					break;
+				}
+			}
+			throw new AssertionError(PROBLEMS.size() + " problems");
+		}
+		System.out.println("ConcurrencyStressTest: " + THREADS + " threads, "
+				+ methods.length + " log methods: OK");
+	}
+
+	/**
+	 * @return every log method of {@link PrimitiveLogger}
+	 */
+	private static Method[] logMethods() {
+		List<Method> methods = new ArrayList<Method>();
+		for (Method method : PrimitiveLogger.class.getMethods()) {
+			if (levelOf(method) >= 0) {
+				methods.add(method);
+			}
+		}
+		return methods.toArray(new Method[methods.size()]);
+	}
+
+	/**
+	 * @param method the method
+	 * @return the index in LEVELS of the method or -1 if it does not log
+	 */
+	private static int levelOf(final Method method) {
+		return Arrays.asList(LEVELS).indexOf(method.getName());
+	}
+
+	/**
+	 * Fetches every logger, checks the configured ones and calls every log
+	 * method on them.
+	 * @param thread the number of this thread
+	 * @param methods the log methods
+	 * @throws Exception if a call fails
+	 */
+	private static void hammer(final int thread, final Method[] methods)
+			throws Exception {
+		for (int round = 0; round < ROUNDS; round++) {
+			for (int i = 0; i < NAMES; i++) {
+				// Each thread walks the names from a different place.
+				fetch("stress.n" + ((i + thread * NAMES / THREADS) % NAMES));
+			}
+			for (Object[] configured : CONFIGURED) {
+				Logger logger = fetch((String) configured[0]);
+				int level = (Integer) configured[2];
+				checkLevel(logger, level);
+				for (Method method : methods) {
+					call(logger, (String) configured[1], level, method,
+							thread, round);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param name the name of the logger
+	 * @return the logger, which must be the one every thread gets
+	 */
+	private static Logger fetch(final String name) {
+		Logger logger = LoggerFactory.getLogger(name);
+		Logger first = LOGGERS.putIfAbsent(name, logger);
+		if (first != null && first != logger) {
+			PROBLEMS.add("Two loggers for: " + name);
+		}
+		return logger;
+	}
+
+	/**
+	 * @param logger the logger to check
+	 * @param level the level configured for it
+	 */
+	private static void checkLevel(final Logger logger, final int level) {
+		boolean[] enabled = {logger.isTraceEnabled(),
+			logger.isDebugEnabled(), logger.isInfoEnabled(),
+			logger.isWarnEnabled(), logger.isErrorEnabled()};
+		for (int i = 0; i < enabled.length; i++) {
+			if (enabled[i] != isEnabled(level, i)) {
+				PROBLEMS.add(logger.getName() + ": " + LEVELS[i]
+						+ " enabled is " + enabled[i]);
+			}
+		}
+	}
+
+	/**
+	 * @param level the level of the logger
+	 * @param index the index in LEVELS of a log method
+	 * @return true if the log method is enabled at the level
+	 */
+	private static boolean isEnabled(final int level, final int index) {
+		return level != AndroidLogger.DISABLED
+				&& index + AndroidLogger.TRACE >= level;
+	}
+
+	/**
+	 * Calls a log method and checks what it logged.
+	 * @param logger the logger to call
+	 * @param tag the tag the logger logs with
+	 * @param level the level of the logger
+	 * @param method the log method
+	 * @param thread the number of this thread
+	 * @param round the current round
+	 * @throws IllegalAccessException never
+	 */
+	private static void call(final Logger logger, final String tag,
+			final int level, final Method method, final int thread,
+			final int round) throws IllegalAccessException {
+		Class<?>[] types = method.getParameterTypes();
+		Object[] args = new Object[types.length];
+		List<Object> formatArgs = new ArrayList<Object>();
+		Object[] array = null;
+		Throwable throwable = null;
+		for (int i = 0; i < types.length; i++) {
+			args[i] = argument(types[i], thread, round, i);
+			if (types[i] == Object[].class) {
+				array = (Object[]) args[i];
+			} else if (types[i] == Throwable.class) {
+				throwable = (Throwable) args[i];
+			} else if (types[i] != String.class
+					&& types[i] != Marker.class) {
+				formatArgs.add(args[i]);
+			}
+		}
+		String message;
+		if (throwable != null) {
+			message = FORMAT + '\n' + Log.getStackTraceString(throwable);
+		} else if (array != null) {
+			message = MessageFormatter.arrayFormat(FORMAT, array)
+					.getMessage();
+		} else if (formatArgs.isEmpty()) {
+			message = FORMAT;
+		} else {
+			message = MessageFormatter.arrayFormat(FORMAT,
+					formatArgs.toArray()).getMessage();
+		}
+
+		int index = levelOf(method);
+		Expected expected = EXPECTED.get();
+		expected.priority = PRIORITIES[index];
+		expected.tag = tag;
+		expected.message = isEnabled(level, index) ? message : null;
+		expected.logged = false;
+		try {
+			method.invoke(logger, args);
+		} catch (InvocationTargetException e) {
+			PROBLEMS.add(method + " threw " + e.getCause());
+		}
+		if (expected.message != null && !expected.logged) {
+			PROBLEMS.add(tag + ": " + method + " logged nothing");
+		}
+		expected.message = null;
+	}
+
+	/**
+	 * @param type the type of the parameter
+	 * @param thread the number of this thread
+	 * @param round the current round
+	 * @param index the index of the parameter
+	 * @return an argument for the parameter which differs between threads
+	 */
+	private static Object argument(final Class<?> type, final int thread,
+			final int round, final int index) {
+		if (type == String.class) {
+			return FORMAT;
+		} else if (type == Object.class) {
+			return "o" + thread + "." + round + "." + index;
+		} else if (type == long.class) {
+			return Long.valueOf(thread * 1000000L + round * 10 + index);
+		} else if (type == double.class) {
+			return Double.valueOf(thread + round / 4.0 + index);
+		} else if (type == float.class) {
+			return Float.valueOf(thread + 0.1f * index);
+		} else if (type == char.class) {
+			return Character.valueOf((char) ('a' + thread + index));
+		} else if (type == Object[].class) {
+			return new Object[] {"a" + thread, round, null};
+		} else if (type == Marker.class) {
+			return MARKER;
+		} else if (type == Throwable.class) {
+			return FAILURE;
+		}
+		throw new AssertionError("No argument for: " + type);
+	}
+
+	/**
+	 * Checks an entry against what the logging thread expects.
+	 * @param priority the priority of the entry
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 */
+	private static void check(final int priority, final String tag,
+			final String msg) {
+		if ("slf4j".equals(tag)) {
+			if (msg.startsWith("Level for: ")) {
+				String created = msg.substring("Level for: ".length(),
+						msg.indexOf(" set to: "));
+				AtomicInteger count = new AtomicInteger();
+				AtomicInteger existing = CREATED.putIfAbsent(created, count);
+				(existing == null ? count : existing).incrementAndGet();
+			}
+			return;
+		}
+		Expected expected = EXPECTED.get();
+		if (expected.message == null) {
+			PROBLEMS.add("Unexpected entry: " + tag + ": " + msg);
+		} else if (expected.logged) {
+			PROBLEMS.add("Logged twice: " + tag + ": " + msg);
+		} else if (priority != expected.priority
+				|| !expected.tag.equals(tag)
+				|| !expected.message.equals(msg)) {
+			PROBLEMS.add("Expected " + expected.priority + "/"
+					+ expected.tag + ": " + expected.message + " but got "
+					+ priority + "/" + tag + ": " + msg);
+		}
+		expected.logged = true;
+	}
+
+	/**
+	 * @param tag the tag of a logger
+	 */
+	private static void checkCreatedOnce(final String tag) {
+		AtomicInteger count = CREATED.get(tag);
+		int created = count == null ? 0 : count.get();
+		if (created != 1) {
+			PROBLEMS.add(tag + " was created " + created + " times");
+		}
+	}
+}
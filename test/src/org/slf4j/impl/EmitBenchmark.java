@@ -0,0 +1,454 @@
+package org.slf4j.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import android.util.Log;
+
+/**
+ * <p>
+ * Measures the time per call of disabled and enabled events through
+ * {@link AndroidLogger} and its per-logger {@link LogEmitter} against
+ * {@link StaticsLogger}, a copy of the dispatch used before, which read the
+ * configuration statics on every call. Then measures the time per call and
+ * the UTF-8 bytes per event of templates logged as tokens against the same
+ * templates logged as plain text. Entries go to the stand-in
+ * android.util.Log, which only counts them, so the figures are the cost of
+ * the library and not of logd.
+ * </p>
+ * <p>
+ * Run with "ant benchmark". The figures depend on the JVM and machine, so
+ * this reports rather than fails; compare runs on the same machine.
+ * </p>
+ */
+public final class EmitBenchmark {
+
+	/** The number of calls timed in each round. */
+	private static final int CALLS = 2000000;
+
+	/** The number of rounds; the fastest is reported. */
+	private static final int ROUNDS = 7;
+
+	/** The number of events whose size is averaged. */
+	private static final int SIZED_EVENTS = 1000;
+
+	/** The format of the rows of figures. */
+	private static final String ROW = "%-36s %12.2f %12.2f %+6.0f%%";
+
+	/** The format of the headings. */
+	private static final String HEADING = "%-36s %12s %12s %7s";
+
+	/** A template with two numbers. */
+	private static final String FRAME = "Rendered frame {} in {} ms";
+
+	/** A template with two strings. */
+	private static final String CONNECT =
+			"Connection to {} failed, retrying: {}";
+
+	/** A template with three arguments. */
+	private static final String SCREEN = "User {} opened screen {} from {}";
+
+	/**
+	 * Calls whose time is measured. Each loops itself so the call it makes
+	 * stays monomorphic, as it would in an application.
+	 */
+	private interface Call {
+		/**
+		 * @param calls the number of calls to make
+		 */
+		void run(int calls);
+	}
+
+	/**
+	 * The dispatch of AndroidLogger before each logger resolved its
+	 * emitter: every call reads the forced tag, prepend and Android level
+	 * settings from statics and formats with MessageFormatter.
+	 */
+	static final class StaticsLogger {
+		/** The forced tag or null. */
+		private static String sForceTag = null;
+		/** Should the logger name be prepended. */
+		private static boolean sForcePrependTag = false;
+		/** Should the Android log level be ignored. */
+		private static boolean sIgnoreAndroidLevel = true;
+
+		/** The tag of the logger. */
+		private final String tag;
+		/** The text prepended when sForcePrependTag is set. */
+		private final String prependTag;
+		/** The level of the logger. */
+		private final int level;
+
+		/**
+		 * @param loggerTag the tag of the logger
+		 * @param loggerLevel the level of the logger
+		 */
+		StaticsLogger(final String loggerTag, final int loggerLevel) {
+			this.tag = loggerTag;
+			this.prependTag = loggerTag + ": ";
+			this.level = loggerLevel;
+		}
+
+		/**
+		 * @return is debug logging enabled
+		 */
+		boolean isDebugEnabled() {
+			return this.level <= AndroidLogger.DEBUG
+					&& (sIgnoreAndroidLevel || Log.isLoggable(tag, Log.DEBUG));
+		}
+
+		/**
+		 * @param message the message to log
+		 */
+		void debug(final String message) {
+			if (isDebugEnabled()) {
+				Log.d(getTag(), getPrepend(message));
+			}
+		}
+
+		/**
+		 * @param format the message format
+		 * @param arg the argument
+		 */
+		void debug(final String format, final Object arg) {
+			if (isDebugEnabled()) {
+				Log.d(getTag(), getPrepend(
+						MessageFormatter.format(format, arg).getMessage()));
+			}
+		}
+
+		/**
+		 * @param format the message format
+		 * @param arg1 the first argument
+		 * @param arg2 the second argument
+		 */
+		void debug(final String format, final Object arg1,
+				final Object arg2) {
+			if (isDebugEnabled()) {
+				Log.d(getTag(), getPrepend(MessageFormatter.format(format,
+						arg1, arg2).getMessage()));
+			}
+		}
+
+		/**
+		 * @param message the message
+		 * @return the message with the logger name if it is prepended
+		 */
+		private String getPrepend(final String message) {
+			if (sForcePrependTag) {
+				return prependTag + message;
+			}
+			return message;
+		}
+
+		/**
+		 * @return the tag to log with
+		 */
+		private String getTag() {
+			if (sForceTag != null) {
+				return sForceTag;
+			}
+			return tag;
+		}
+	}
+
+	/** The characters logged, so the messages can not be optimised away. */
+	private static long sChars;
+
+	/** The UTF-8 bytes logged while sizing events. */
+	private static long sBytes;
+
+	/** Are the events being sized. */
+	private static boolean sSizing;
+
+	/**
+	 * No instances.
+	 */
+	private EmitBenchmark() {
+	}
+
+	/**
+	 * @param args ignored
+	 * @throws IOException if the dictionary can not be loaded
+	 */
+	public static void main(final String[] args) throws IOException {
+		Log.setListener(new Log.Listener() {
+			@Override
+			public void println(final int priority, final String tag,
+					final String msg) {
+				sChars += msg.length();
+				if (sSizing) {
+					sBytes += utf8Length(msg);
+				}
+			}
+		});
+		final AndroidLogger disabled =
+				(AndroidLogger) LoggerFactory.getLogger("alloc.Disabled");
+		final AndroidLogger enabled =
+				(AndroidLogger) LoggerFactory.getLogger("alloc.Enabled");
+		final StaticsLogger oldDisabled =
+				new StaticsLogger("alloc.Disabled", AndroidLogger.ERROR);
+		final StaticsLogger oldEnabled =
+				new StaticsLogger("alloc.Enabled", AndroidLogger.TRACE);
+		final Object arg = "argument";
+
+		System.out.println(String.format(HEADING, "ns/call", "emitter",
+				"statics", "change"));
+		compare("disabled isDebugEnabled()", new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					if (disabled.isDebugEnabled()) {
+						sChars++;
+					}
+				}
+			}
+		}, new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					if (oldDisabled.isDebugEnabled()) {
+						sChars++;
+					}
+				}
+			}
+		});
+		compare("disabled debug(String, Object)", new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					disabled.debug("a={}", arg);
+				}
+			}
+		}, new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					oldDisabled.debug("a={}", arg);
+				}
+			}
+		});
+		compare("disabled debug(String, long)", new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					disabled.debug("i={}", i);
+				}
+			}
+		}, new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					oldDisabled.debug("i={}", i);
+				}
+			}
+		});
+		compare("enabled debug(String)", new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					enabled.debug("message");
+				}
+			}
+		}, new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					oldEnabled.debug("message");
+				}
+			}
+		});
+		compare("enabled debug(String, Object)", new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					enabled.debug("a={}", arg);
+				}
+			}
+		}, new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					oldEnabled.debug("a={}", arg);
+				}
+			}
+		});
+		compare("enabled debug(String, long)", new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					enabled.debug("i={}", i);
+				}
+			}
+		}, new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					oldEnabled.debug("i={}", i);
+				}
+			}
+		});
+		compare("enabled debug(String, Object, Object)", new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					enabled.debug("a={} b={}", arg, arg);
+				}
+			}
+		}, new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					oldEnabled.debug("a={} b={}", arg, arg);
+				}
+			}
+		});
+		compareTokens();
+		System.out.println("(" + sChars + " characters logged)");
+	}
+
+	/**
+	 * Compares templates logged as tokens with the same templates logged as
+	 * plain text.
+	 * @throws IOException if the dictionary can not be loaded
+	 */
+	private static void compareTokens() throws IOException {
+		StringBuilder dictionary = new StringBuilder();
+		for (String template : new String[] {FRAME, CONNECT, SCREEN}) {
+			dictionary.append(String.format("%08x\t%s\n",
+					TemplateTokens.idOf(template),
+					TemplateTokens.escape(template)));
+		}
+		TemplateTokens tokens = TemplateTokens.load(new ByteArrayInputStream(
+				dictionary.toString().getBytes("UTF-8")));
+		final LogEmitter tokenized = new LogEmitter("T", "T", null, null,
+				tokens, null, AndroidLogger.TRACE, false, null);
+		final LogEmitter plain = new LogEmitter("T", "T", null, null, null,
+				null, AndroidLogger.TRACE, false, null);
+		final Object host = "api.example.com";
+		final Object reason = "java.net.SocketTimeoutException: timeout";
+		final Object[] screen = {"1234567", "settings", "notification"};
+
+		System.out.println();
+		System.out.println(String.format(HEADING, "ns/call, bytes/event",
+				"tokenized", "plain", "change"));
+		compareOutput("debug(String, long, long)", new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					tokenized.emit(AndroidLogger.DEBUG, FRAME, i, 16L);
+				}
+			}
+		}, new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					plain.emit(AndroidLogger.DEBUG, FRAME, i, 16L);
+				}
+			}
+		});
+		compareOutput("warn(String, Object, Object)", new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					tokenized.emit(AndroidLogger.WARN, CONNECT, host, reason);
+				}
+			}
+		}, new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					plain.emit(AndroidLogger.WARN, CONNECT, host, reason);
+				}
+			}
+		});
+		compareOutput("info(String, Object[])", new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					tokenized.emit(AndroidLogger.INFO, SCREEN, screen);
+				}
+			}
+		}, new Call() {
+			@Override
+			public void run(final int calls) {
+				for (int i = 0; i < calls; i++) {
+					plain.emit(AndroidLogger.INFO, SCREEN, screen);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Times two calls in alternating rounds and prints the fastest round of
+	 * each.
+	 * @param name the name of the case
+	 * @param current the call through the emitter
+	 * @param statics the same call through the old dispatch
+	 */
+	private static void compare(final String name, final Call current,
+			final Call statics) {
+		double best = Double.MAX_VALUE;
+		double bestStatics = Double.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			best = Math.min(best, time(current));
+			bestStatics = Math.min(bestStatics, time(statics));
+		}
+		System.out.println(String.format(ROW, name, best, bestStatics,
+				(best - bestStatics) * 100 / bestStatics));
+	}
+
+	/**
+	 * Times two calls like {@link #compare(String, Call, Call)}, then
+	 * prints the average UTF-8 bytes of the events each logs.
+	 * @param name the name of the case
+	 * @param first the first call
+	 * @param second the second call
+	 */
+	private static void compareOutput(final String name, final Call first,
+			final Call second) {
+		compare(name, first, second);
+		double firstBytes = size(first);
+		double secondBytes = size(second);
+		System.out.println(String.format(ROW, "", firstBytes, secondBytes,
+				(firstBytes - secondBytes) * 100 / secondBytes));
+	}
+
+	/**
+	 * @param call the call to size
+	 * @return the average UTF-8 bytes of the events it logs
+	 */
+	private static double size(final Call call) {
+		sBytes = 0;
+		sSizing = true;
+		call.run(SIZED_EVENTS);
+		sSizing = false;
+		return sBytes / (double) SIZED_EVENTS;
+	}
+
+	/**
+	 * @param text the text
+	 * @return the length of the text in UTF-8
+	 */
+	private static int utf8Length(final String text) {
+		try {
+			return text.getBytes("UTF-8").length;
+		} catch (UnsupportedEncodingException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * @param call the call to time
+	 * @return the nanoseconds per call
+	 */
+	private static double time(final Call call) {
+		long start = System.nanoTime();
+		call.run(CALLS);
+		return (System.nanoTime() - start) / (double) CALLS;
+	}
+}
@@ -0,0 +1,167 @@
+package org.slf4j.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.LoggerFactory;
+
+import android.util.Log;
+
+/**
+ * Checks the bucket boundaries and percentiles of {@link LatencyHistogram},
+ * that negative durations count as zero, and that a failing report does not
+ * stop the thread reporting for all stopwatches.
+ */
+public final class LatencyHistogramTest {
+
+	/** How long to wait for a scheduled report in milliseconds. */
+	private static final long WAIT_MILLIS = 5000;
+
+	/**
+	 * No instances.
+	 */
+	private LatencyHistogramTest() {
+	}
+
+	/**
+	 * @param args ignored
+	 * @throws Exception if the test fails
+	 */
+	public static void main(final String[] args) throws Exception {
+		checkBuckets();
+		checkPercentiles();
+		checkReporting();
+		System.out.println("LatencyHistogramTest: OK");
+	}
+
+	/**
+	 * Checks that buckets are contiguous, cover all longs and keep the
+	 * relative error below one sub bucket.
+	 */
+	private static void checkBuckets() {
+		for (int value = 0; value < LatencyHistogram.SUB_BUCKETS; value++) {
+			Assert.equal(value, LatencyHistogram.bucketFor(value), "Exact");
+		}
+		Assert.equal(0, LatencyHistogram.bucketFor(-5), "Negative");
+		Assert.equal(0, LatencyHistogram.bucketFor(Long.MIN_VALUE), "Min");
+		int last = LatencyHistogram.BUCKET_COUNT - 1;
+		Assert.equal(last, LatencyHistogram.bucketFor(Long.MAX_VALUE), "Max");
+		Assert.equal(Long.MAX_VALUE, LatencyHistogram.highestValueIn(last),
+				"Highest of the last bucket");
+		for (int bucket = 0; bucket < last; bucket++) {
+			long highest = LatencyHistogram.highestValueIn(bucket);
+			Assert.equal(bucket, LatencyHistogram.bucketFor(highest),
+					"Highest in " + bucket);
+			Assert.equal(bucket + 1, LatencyHistogram.bucketFor(highest + 1),
+					"Next after " + bucket);
+		}
+		for (long value = 1; value < Long.MAX_VALUE / 3;
+				value = value * 3 + 1) {
+			long highest = LatencyHistogram.highestValueIn(
+					LatencyHistogram.bucketFor(value));
+			Assert.isTrue(highest >= value
+					&& highest - value <= value / LatencyHistogram.SUB_BUCKETS,
+					"Error for " + value + ": " + highest);
+		}
+	}
+
+	/**
+	 * Checks percentiles and the range of recorded values.
+	 */
+	private static void checkPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+		long[] range = new long[2];
+		Assert.equal(0, histogram.drainTo(counts), "Empty");
+		Assert.equal(0, LatencyHistogram.percentile(counts, 0, 0.5), "None");
+
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(i * 1000L);
+		}
+		long total = histogram.drainTo(counts);
+		Assert.equal(1000, total, "Total");
+		assertPercentile(counts, total, 0.5, 500000);
+		assertPercentile(counts, total, 0.9, 900000);
+		assertPercentile(counts, total, 0.99, 990000);
+		assertPercentile(counts, total, 1.0, 1000000);
+		histogram.drainRange(range);
+		Assert.equal(1000, range[0], "Min");
+		Assert.equal(1000000, range[1], "Max");
+		Assert.equal(0, histogram.drainTo(counts), "Drained");
+
+		histogram.record(-5);
+		histogram.record(10);
+		Assert.equal(2, histogram.drainTo(counts), "Negative recorded");
+		Assert.equal(1, counts[0], "Negative counted as zero");
+		histogram.drainRange(range);
+		Assert.equal(0, range[0], "Negative minimum");
+		Assert.equal(10, range[1], "Maximum");
+	}
+
+	/**
+	 * @param counts the drained counts
+	 * @param total the total drained
+	 * @param fraction the percentile
+	 * @param exact the exact value of the percentile
+	 */
+	private static void assertPercentile(final long[] counts,
+			final long total, final double fraction, final long exact) {
+		long value = LatencyHistogram.percentile(counts, total, fraction);
+		Assert.isTrue(value >= exact
+				&& value - exact <= exact / LatencyHistogram.SUB_BUCKETS,
+				"Percentile " + fraction + ": " + value);
+	}
+
+	/**
+	 * Checks that scheduled reports go on after one of them fails.
+	 * @throws InterruptedException if interrupted
+	 */
+	private static void checkReporting() throws InterruptedException {
+		final List<String> reports = new ArrayList<String>();
+		Log.setListener(new Log.Listener() {
+			@Override
+			public void println(final int priority, final String tag,
+					final String msg) {
+				if (!msg.startsWith("timing ")) {
+					return;
+				}
+				synchronized (reports) {
+					reports.add(msg);
+					reports.notifyAll();
+					if (reports.size() == 1) {
+						throw new IllegalStateException("Failing report");
+					}
+				}
+			}
+		});
+		AndroidLogger log =
+				(AndroidLogger) LoggerFactory.getLogger("stress.Trace");
+		Stopwatch failing = new Stopwatch(log, "failing", 10);
+		failing.record(1000);
+		awaitReports(reports, 1);
+		failing.record(2000);
+		awaitReports(reports, 2);
+		Stopwatch later = new Stopwatch(log, "later", 10);
+		later.record(3000);
+		awaitReports(reports, 3);
+		Assert.isTrue(reports.get(2).startsWith("timing later: n=1"),
+				"Later report: " + reports.get(2));
+	}
+
+	/**
+	 * @param reports the reports logged
+	 * @param count the number of reports to wait for
+	 * @throws InterruptedException if interrupted
+	 */
+	private static void awaitReports(final List<String> reports,
+			final int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+		synchronized (reports) {
+			while (reports.size() < count) {
+				long left = deadline - System.currentTimeMillis();
+				Assert.isTrue(left > 0, "Reports: " + reports);
+				reports.wait(left);
+			}
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package org.slf4j.impl;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.slf4j.MDC;
+
+import android.util.Log;
+
+/**
+ * Checks the conversions of the layout, in particular that %X{key} shows
+ * the MDC value of the logging thread, which needs a working MDC adapter
+ * bound by {@link StaticMDCBinder}, and that times filled in from the text
+ * cached for a second match SimpleDateFormat.
+ */
+public final class PatternLayoutTest {
+
+	/** The messages logged, other than by slf4j itself. */
+	private static final List<String> LOGGED = new ArrayList<String>();
+
+	/**
+	 * No instances.
+	 */
+	private PatternLayoutTest() {
+	}
+
+	/**
+	 * @param args ignored
+	 * @throws Exception if the test fails
+	 */
+	public static void main(final String[] args) throws Exception {
+		Log.setListener(new Log.Listener() {
+			@Override
+			public void println(final int priority, final String tag,
+					final String msg) {
+				if (!"slf4j".equals(tag)) {
+					LOGGED.add(msg);
+				}
+			}
+		});
+		final LogEmitter emitter = new LogEmitter("Tag", "Tag", null,
+				PatternLayout.compile("[%X{user}] %-5p %.2c %%: "), null,
+				null, AndroidLogger.TRACE, false, null);
+
+		emitter.emit(AndroidLogger.INFO, "no user");
+		MDC.put("user", "alice");
+		emitter.emit(AndroidLogger.DEBUG, "n={}", 5L);
+		emitter.emit(AndroidLogger.WARN, "{} and {}", "a", "b");
+		expect("[] INFO  ag %: no user", "[alice] DEBUG ag %: n=5",
+				"[alice] WARN  ag %: a and b");
+
+		// Another thread starts with a copy of the values and changing its
+		// own leaves ours alone.
+		Thread other = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				emitter.emit(AndroidLogger.ERROR, "inherited");
+				MDC.clear();
+				MDC.put("user", "bob");
+				emitter.emit(AndroidLogger.ERROR, "other");
+			}
+		});
+		other.start();
+		other.join();
+		emitter.emit(AndroidLogger.INFO, "still");
+		expect("[alice] ERROR ag %: inherited", "[bob] ERROR ag %: other",
+				"[alice] INFO  ag %: still");
+
+		MDC.remove("user");
+		emitter.emit(AndroidLogger.INFO, "removed");
+		expect("[] INFO  ag %: removed");
+
+		PatternLayout padded = PatternLayout.compile("[%7p|%20c|%-6.4p|%.3p]");
+		StringBuilder buffer = new StringBuilder("x");
+		padded.render(buffer, AndroidLogger.WARN, "tag");
+		Assert.equal("x[   WARN|                 tag|WARN  |ARN]",
+				buffer.toString(), "Padded");
+
+		checkDate("HH:mm:ss.SSS");
+		checkDate("EEEE yyyy-MM-dd'T'HH:mm:ss,SSS Z");
+		checkDate("HH:mm:ss");
+		checkDate("ss.S");
+		checkDate("SSSS");
+
+		System.out.println("PatternLayoutTest: OK");
+	}
+
+	/**
+	 * Renders the time until just past the next second and checks each
+	 * rendering matches SimpleDateFormat for a time between before and
+	 * after it.
+	 * @param format the SimpleDateFormat pattern
+	 */
+	private static void checkDate(final String format) {
+		PatternLayout layout = PatternLayout.compile("%d{" + format + "}");
+		SimpleDateFormat expected = new SimpleDateFormat(format);
+		StringBuilder buffer = new StringBuilder();
+		long end = System.currentTimeMillis() / 1000 * 1000 + 1020;
+		long now;
+		do {
+			long before = System.currentTimeMillis();
+			buffer.setLength(0);
+			layout.render(buffer, AndroidLogger.INFO, "T");
+			now = System.currentTimeMillis();
+			String rendered = buffer.toString();
+			boolean found = false;
+			for (long t = before; t <= now && !found; t++) {
+				found = rendered.equals(expected.format(new Date(t)));
+			}
+			Assert.isTrue(found, format + ": " + rendered + " is not between "
+					+ expected.format(new Date(before)) + " and "
+					+ expected.format(new Date(now)));
+		} while (now < end);
+	}
+
+	/**
+	 * Checks and forgets the messages logged so far.
+	 * @param messages the expected messages
+	 */
+	private static void expect(final String... messages) {
+		for (int i = 0; i < messages.length; i++) {
+			Assert.equal(messages[i], i < LOGGED.size() ? LOGGED.get(i) : null,
+					"Message " + i);
+		}
+		Assert.equal(messages.length, LOGGED.size(), "Messages logged");
+		LOGGED.clear();
+	}
+}
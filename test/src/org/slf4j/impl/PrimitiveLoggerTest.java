@@ -0,0 +1,100 @@
+package org.slf4j.impl;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.LoggerFactory;
+
+import android.util.Log;
+
+/**
+ * Checks that calls pick the primitive overloads without changing what is
+ * logged, and that an argument which logs from its toString() does not
+ * corrupt the message it is an argument of.
+ */
+public final class PrimitiveLoggerTest {
+
+	/** The messages logged, other than by slf4j itself. */
+	private static final List<String> LOGGED = new ArrayList<String>();
+
+	/**
+	 * No instances.
+	 */
+	private PrimitiveLoggerTest() {
+	}
+
+	/**
+	 * @param args ignored
+	 * @throws Exception if the test fails
+	 */
+	public static void main(final String[] args) throws Exception {
+		Log.setListener(new Log.Listener() {
+			@Override
+			public void println(final int priority, final String tag,
+					final String msg) {
+				if (!"slf4j".equals(tag)) {
+					LOGGED.add(msg);
+				}
+			}
+		});
+		final PrimitiveLogger log =
+				(PrimitiveLogger) LoggerFactory.getLogger("stress.Trace");
+
+		// These resolve to overloads added by PrimitiveLogger or, where that
+		// would be ambiguous or change the text, to the Object ones.
+		float f = 1.1f;
+		short s = 7;
+		byte b = 8;
+		log.debug("c={}", 'x');
+		log.debug("f={}", f);
+		log.debug("i={} s={}", 5, s);
+		log.debug("b={}", b);
+		log.debug("{} {}", 'a', 'b');
+		log.debug("{} {}", 'a', 5);
+		log.debug("{} {}", 5, 'b');
+		log.debug("{} {}", 1.5, 2);
+		log.debug("{} {}", true, 5);
+		log.debug("{} {}", "s", 5);
+		log.debug("{} {}", f, f);
+		expect("c=x", "f=1.1", "i=5 s=7", "b=8", "a b", "a 5", "5 b",
+				"1.5 2", "true 5", "s 5", "1.1 1.1");
+
+		// An argument logging while a tokenized record is being built.
+		final Object logs = new Object() {
+			@Override
+			public String toString() {
+				log.debug("inner {}", 42);
+				return "OBJ";
+			}
+		};
+		String template = "outer {} and {}";
+		TemplateTokens tokens = TemplateTokens.load(new ByteArrayInputStream(
+				(String.format("%08x", TemplateTokens.idOf(template)) + "\t"
+						+ template + "\n").getBytes("UTF-8")));
+		LogEmitter emitter = new LogEmitter("T", "T", null, null, tokens,
+				null, AndroidLogger.TRACE, false, null);
+		emitter.emit(AndroidLogger.DEBUG, template, logs, 7L);
+		emitter.emit(AndroidLogger.DEBUG, template, 'x', 'y',
+				LogEmitter.FIRST_IS_CHAR | LogEmitter.SECOND_IS_CHAR);
+		emitter.emit(AndroidLogger.DEBUG, template, '|', 1L,
+				LogEmitter.FIRST_IS_CHAR);
+		String id = String.format("~%08x", TemplateTokens.idOf(template));
+		expect("inner 42", id + "|OBJ|7", id + "|x|y", id + "|\\||1");
+
+		System.out.println("PrimitiveLoggerTest: OK");
+	}
+
+	/**
+	 * Checks and forgets the messages logged so far.
+	 * @param messages the expected messages
+	 */
+	private static void expect(final String... messages) {
+		for (int i = 0; i < messages.length; i++) {
+			Assert.equal(messages[i], i < LOGGED.size() ? LOGGED.get(i) : null,
+					"Message " + i);
+		}
+		Assert.equal(messages.length, LOGGED.size(), "Messages logged");
+		LOGGED.clear();
+	}
+}
@@ -0,0 +1,132 @@
+package org.slf4j.impl;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.LoggerFactory;
+
+import android.util.Log;
+
+/**
+ * Checks that each rate limited call site keeps its own count, that the
+ * number of skipped events follows the formatted message, also for
+ * templates logged as tokens, and that exceptions are logged.
+ */
+public final class RateLimitedLoggerTest {
+
+	/** The messages logged, other than by slf4j itself. */
+	private static final List<String> LOGGED = new ArrayList<String>();
+
+	/**
+	 * No instances.
+	 */
+	private RateLimitedLoggerTest() {
+	}
+
+	/**
+	 * @param args ignored
+	 * @throws Exception if the test fails
+	 */
+	public static void main(final String[] args) throws Exception {
+		Log.setListener(new Log.Listener() {
+			@Override
+			public void println(final int priority, final String tag,
+					final String msg) {
+				if (!"slf4j".equals(tag)) {
+					LOGGED.add(msg);
+				}
+			}
+		});
+		AndroidLogger log =
+				(AndroidLogger) LoggerFactory.getLogger("stress.Trace");
+
+		RateLimitedLogger every3 = log.every(3);
+		for (int i = 0; i < 10; i++) {
+			every3.debug("n={}", i);
+		}
+		expect("n=0", "n=3 [skipped 2]", "n=6 [skipped 2]",
+				"n=9 [skipped 2]");
+		RateLimitedLogger hourly = log.atMostEvery(1, TimeUnit.HOURS);
+		for (int i = 0; i < 3; i++) {
+			hourly.info("once {}", i);
+		}
+		expect("once 0");
+
+		// Every call is a new site with a count of its own.
+		Assert.isTrue(log.every(5) != log.every(5), "New site");
+		RateLimitedLogger other = log.every(3);
+		other.debug("first");
+		every3.debug("skipped");
+		expect("first");
+
+		RateLimitedLogger every2 = log.every(2);
+		IllegalStateException failure = new IllegalStateException("cause");
+		for (int i = 0; i < 3; i++) {
+			every2.warn("failed", failure);
+		}
+		Assert.equal(2, LOGGED.size(), "Exceptions logged");
+		Assert.isTrue(LOGGED.get(0).startsWith(
+				"failed\njava.lang.IllegalStateException: cause"),
+				"Exception: " + LOGGED.get(0));
+		Assert.isTrue(LOGGED.get(1).startsWith(
+				"failed [skipped 1]\njava.lang.IllegalStateException: cause"),
+				"Exception after skipping: " + LOGGED.get(1));
+		LOGGED.clear();
+
+		RateLimitedLogger every1 = log.every(1);
+		every1.debug("c={}", 'x');
+		every1.debug("l={}", 5L);
+		every1.debug("{} and {}", "a", "b");
+		every1.debug("{}{}{}", new Object[] {1, 2, 3});
+		expect("c=x", "l=5", "a and b", "123");
+		every1.debug("{} {}", 1, 2);
+		every1.debug("{} {}", 'a', 'b');
+		every1.debug("{} {}", 'a', 2);
+		every1.debug("{} {}", 1, 'b');
+		every1.debug("{} {}", 1.5, 2.5f);
+		every1.debug("{}", 1.5);
+		every1.debug("{}", 1.1f);
+		every1.debug("{}{}{}", "a", 'b', 3);
+		every1.debug("{}{}{}{}", "a", 'b', 3, 4.5);
+		expect("1 2", "a b", "a 2", "1 b", "1.5 2.5", "1.5", "1.1", "ab3",
+				"ab34.5");
+
+		// The primitive overloads box only to note what was skipped.
+		RateLimitedLogger pairs = log.every(2);
+		for (int i = 0; i < 3; i++) {
+			pairs.info("{} {}", 'c', i);
+		}
+		expect("c 0", "c 2 [skipped 1]");
+
+		// A template logged as a token logs plain text with the note.
+		String template = "t={}";
+		TemplateTokens tokens = TemplateTokens.load(new ByteArrayInputStream(
+				(String.format("%08x", TemplateTokens.idOf(template)) + "\t"
+						+ template + "\n").getBytes("UTF-8")));
+		LogEmitter emitter = new LogEmitter("T", "T", null, null, tokens,
+				null, AndroidLogger.TRACE, false, null);
+		RateLimitedLogger tokenized = new RateLimitedLogger(emitter, 2, 0);
+		for (int i = 0; i < 3; i++) {
+			tokenized.debug(template, i);
+		}
+		expect(String.format("~%08x|0", TemplateTokens.idOf(template)),
+				"t=2 [skipped 1]");
+
+		System.out.println("RateLimitedLoggerTest: OK");
+	}
+
+	/**
+	 * Checks and forgets the messages logged so far.
+	 * @param messages the expected messages
+	 */
+	private static void expect(final String... messages) {
+		for (int i = 0; i < messages.length; i++) {
+			Assert.equal(messages[i], i < LOGGED.size() ? LOGGED.get(i) : null,
+					"Message " + i);
+		}
+		Assert.equal(messages.length, LOGGED.size(), "Messages logged");
+		LOGGED.clear();
+	}
+}
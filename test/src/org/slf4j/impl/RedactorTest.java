@@ -0,0 +1,153 @@
+package org.slf4j.impl;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import android.util.Log;
+
+/**
+ * Checks that redaction patterns work as written, backreferences and named
+ * groups included, that those which cannot join the combined pattern are
+ * warned about, that masked text is not matched again, that only the
+ * message is scanned and not the layout,
+ * prepended text or record id in front of it, and that the stack traces
+ * of exceptions are masked before they reach the Android log or a sink.
+ */
+public final class RedactorTest {
+
+	/** The messages logged, other than by slf4j itself. */
+	private static final List<String> LOGGED = new ArrayList<String>();
+
+	/** The warnings logged by slf4j itself. */
+	private static final List<String> WARNED = new ArrayList<String>();
+
+	/**
+	 * No instances.
+	 */
+	private RedactorTest() {
+	}
+
+	/**
+	 * @param args ignored
+	 * @throws Exception if the test fails
+	 */
+	public static void main(final String[] args) throws Exception {
+		Log.setListener(new Log.Listener() {
+			@Override
+			public void println(final int priority, final String tag,
+					final String msg) {
+				if (!"slf4j".equals(tag)) {
+					LOGGED.add(msg);
+				} else if (priority == Log.WARN) {
+					WARNED.add(msg);
+				}
+			}
+		});
+		Properties props = new Properties();
+		props.setProperty("redact.pattern.a.quoted", "(['\"])secret\\1");
+		props.setProperty("redact.pattern.b.pair", "(?<v>\\d{3})-\\k<v>");
+		props.setProperty("redact.pattern.c.number", "(?<v>\\d{5,})");
+		props.setProperty("redact.pattern.d.password", "password=\\S+");
+		props.setProperty("redact.pattern.e.invalid", "(unclosed");
+		Redactor redactor = Redactor.configure(props);
+		Assert.equal(3, WARNED.size(), "Warnings: " + WARNED);
+		Assert.isTrue(WARNED.get(0).startsWith("Redaction pattern "
+				+ "redact.pattern.a.quoted cannot be combined"), WARNED.get(0));
+		Assert.isTrue(WARNED.get(1).startsWith("Redaction pattern "
+				+ "redact.pattern.c.number cannot be combined"), WARNED.get(1));
+		Assert.isTrue(WARNED.get(2).startsWith("Invalid redaction pattern: "
+				+ "redact.pattern.e.invalid"), WARNED.get(2));
+		WARNED.clear();
+
+		// Backreferences and repeated group names keep their meaning.
+		LogEmitter plain = new LogEmitter("T", "T", null, null, null,
+				redactor, AndroidLogger.TRACE, false, null);
+		plain.emit(AndroidLogger.INFO, "'secret' \"secret' 123-123 123-456");
+		plain.emit(AndroidLogger.INFO, "id {} and {}", 1234567L, 42L);
+		expect("*** \"secret' *** 123-456", "id *** and 42");
+
+		// A separate scan does not match inside a mask, nor the combined
+		// one inside text a separate scan masked.
+		Properties masking = new Properties();
+		masking.setProperty("redact.mask", "[x x]");
+		masking.setProperty("redact.pattern.a.pair", "(\\w) \\1");
+		masking.setProperty("redact.pattern.b.key", "key=\\S+");
+		masking.setProperty("redact.pattern.c.bracket", "\\[\\w+");
+		LogEmitter masked = new LogEmitter("T", "T", null, null, null,
+				Redactor.configure(masking), AndroidLogger.TRACE, false, null);
+		masked.emit(AndroidLogger.INFO, "key=1 y y z");
+		expect("[x x] [x x] z");
+		WARNED.clear();
+
+		// The layout and prepended tag are left alone.
+		LogEmitter prefixed = new LogEmitter("User12345", "User12345",
+				"User12345: ", PatternLayout.compile("%c "), null, redactor,
+				AndroidLogger.TRACE, false, null);
+		prefixed.emit(AndroidLogger.INFO, "user {}", "99999");
+		prefixed.emit(AndroidLogger.INFO, "no args 99999");
+		expect("User12345 User12345: user ***",
+				"User12345 User12345: no args ***");
+
+		// So is the id of a record, while its arguments are redacted.
+		String template = "account {} password={}";
+		String id = String.format("%08x", TemplateTokens.idOf(template));
+		TemplateTokens tokens = TemplateTokens.load(new ByteArrayInputStream(
+				(id + "\t" + template + "\n").getBytes("UTF-8")));
+		LogEmitter tokenized = new LogEmitter("T", "T", null, null, tokens,
+				redactor, AndroidLogger.TRACE, false, null);
+		tokenized.emit(AndroidLogger.INFO, template, 1234567L, 7L);
+		expect("~" + id + "|***|7");
+
+		// Stack traces are masked in the Android log and in sinks.
+		final List<String> sunk = new ArrayList<String>();
+		LogEmitter sinking = new LogEmitter("T", "T", null, null, null,
+				redactor, AndroidLogger.TRACE, false, new LogSink() {
+			@Override
+			public void write(final int level, final String tag,
+					final String message, final Throwable throwable) {
+				Assert.isTrue(throwable == null, "Throwable not sent");
+				sunk.add(message);
+			}
+		});
+		sinking.emit(AndroidLogger.ERROR, "login 1234567 failed",
+				new IllegalStateException("password=hunter2"));
+		Assert.equal(1, LOGGED.size(), "Messages logged");
+		String logged = LOGGED.get(0);
+		Assert.isTrue(logged.startsWith("login *** failed\n"
+				+ "java.lang.IllegalStateException: ***\n"), logged);
+		Assert.isTrue(logged.indexOf("hunter2") < 0, "Redacted trace");
+		Assert.equal(logged, sunk.get(0), "Sink message");
+		LOGGED.clear();
+
+		// Without a redactor the throwable is passed on as it is.
+		LogEmitter unredacted = new LogEmitter("T", "T", null, null, null,
+				null, AndroidLogger.TRACE, false, new LogSink() {
+			@Override
+			public void write(final int level, final String tag,
+					final String message, final Throwable throwable) {
+				Assert.isTrue(throwable != null, "Throwable sent");
+			}
+		});
+		unredacted.emit(AndroidLogger.ERROR, "failed",
+				new IllegalStateException("password=hunter2"));
+		Assert.isTrue(LOGGED.get(0).indexOf("hunter2") > 0, "Unredacted");
+		LOGGED.clear();
+
+		System.out.println("RedactorTest: OK");
+	}
+
+	/**
+	 * Checks and forgets the messages logged so far.
+	 * @param messages the expected messages
+	 */
+	private static void expect(final String... messages) {
+		for (int i = 0; i < messages.length; i++) {
+			Assert.equal(messages[i], i < LOGGED.size() ? LOGGED.get(i) : null,
+					"Message " + i);
+		}
+		Assert.equal(messages.length, LOGGED.size(), "Messages logged");
+		LOGGED.clear();
+	}
+}
@@ -0,0 +1,141 @@
+package org.slf4j.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import android.util.Log;
+
+/**
+ * Checks that only messages equal to a dictionary template are logged as
+ * records, also when another string shares the id of the template, and
+ * that templates survive the escaping of dictionary lines and arguments
+ * the escaping of records, which TokenDecoder expands back.
+ */
+public final class TemplateTokensTest {
+
+	/** The messages logged, other than by slf4j itself. */
+	private static final List<String> LOGGED = new ArrayList<String>();
+
+	/**
+	 * No instances.
+	 */
+	private TemplateTokensTest() {
+	}
+
+	/**
+	 * @param args ignored
+	 * @throws Exception if the test fails
+	 */
+	public static void main(final String[] args) throws Exception {
+		Log.setListener(new Log.Listener() {
+			@Override
+			public void println(final int priority, final String tag,
+					final String msg) {
+				if (!"slf4j".equals(tag)) {
+					LOGGED.add(msg);
+				}
+			}
+		});
+
+		// "Aa" and "BB" have the same hash code, and so the same id.
+		String template = "Aa={}";
+		String collision = new String("BB={}");
+		Assert.equal(TemplateTokens.idOf(template),
+				TemplateTokens.idOf(collision), "Ids collide");
+		String escaped = "a\\b\nc\rd\te \\n {}";
+		TemplateTokens tokens = load(template, escaped);
+		Assert.equal(2, tokens.size(), "Templates loaded");
+		Assert.isTrue(tokens.contains(template), "Template");
+		Assert.isTrue(tokens.contains(new String(template)), "Equal template");
+		Assert.isTrue(!tokens.contains(collision), "Same id, other text");
+		Assert.isTrue(!tokens.contains("Aa={} "), "Other id");
+		Assert.isTrue(!tokens.contains(null), "Null");
+		Assert.isTrue(tokens.contains(escaped), "Escaped template");
+
+		LogEmitter emitter = new LogEmitter("T", "T", null, null, tokens,
+				null, AndroidLogger.TRACE, false, null);
+		emitter.emit(AndroidLogger.INFO, template, 1L);
+		emitter.emit(AndroidLogger.INFO, collision, 2L);
+		emitter.emit(AndroidLogger.INFO, collision, "x");
+		emitter.emit(AndroidLogger.INFO, collision);
+		expect(String.format("~%08x|1", TemplateTokens.idOf(template)),
+				"BB=2", "BB=x", "BB={}");
+
+		for (String text : new String[] {"", "\\", "\\\\n", "\n\r\t", "|{}"}) {
+			Assert.equal(text, TemplateTokens.unescape(
+					TemplateTokens.escape(text)), "Round trip");
+		}
+		// Arguments are escaped so a record stays one line and decodes back.
+		String pair = "a={} b={}";
+		TokenDecoder decoder = new TokenDecoder(Collections.singletonMap(
+				TemplateTokens.idOf(pair), pair));
+		emitter = new LogEmitter("T", "T", null, null, load(pair), null,
+				AndroidLogger.TRACE, false, null);
+		String[] texts = {"x|y\\z\nw\r", "\\n|", "plain"};
+		for (String text : texts) {
+			emitter.emit(AndroidLogger.INFO, pair, text, '\n');
+			emitter.emit(AndroidLogger.INFO, pair, text, '|');
+		}
+		Assert.equal(texts.length * 2, LOGGED.size(), "Records logged");
+		for (int i = 0; i < LOGGED.size(); i++) {
+			String record = LOGGED.get(i);
+			Assert.isTrue(record.indexOf('\n') < 0
+					&& record.indexOf('\r') < 0, "One line: " + record);
+			String text = texts[i / 2];
+			Assert.equal("a=" + text + " b=" + (i % 2 == 0 ? "\n" : "|"),
+					decoder.expand(record), "Decoded " + record);
+		}
+		LOGGED.clear();
+
+		assertMalformed("00000000 no tab");
+		assertMalformed("zzzzzzzz\tbad id");
+		assertMalformed("00000000\tid of another template");
+
+		System.out.println("TemplateTokensTest: OK");
+	}
+
+	/**
+	 * @param templates the templates of the dictionary
+	 * @return the loaded dictionary
+	 * @throws IOException if loading fails
+	 */
+	private static TemplateTokens load(final String... templates)
+			throws IOException {
+		StringBuilder dictionary = new StringBuilder();
+		for (String template : templates) {
+			dictionary.append(String.format("%08x\t%s\n",
+					TemplateTokens.idOf(template),
+					TemplateTokens.escape(template)));
+		}
+		return TemplateTokens.load(new ByteArrayInputStream(
+				dictionary.toString().getBytes("UTF-8")));
+	}
+
+	/**
+	 * @param line a dictionary line which must be rejected
+	 */
+	private static void assertMalformed(final String line) {
+		try {
+			TemplateTokens.load(new ByteArrayInputStream(line.getBytes()));
+		} catch (IOException e) {
+			return;
+		}
+		throw new AssertionError("Loaded: " + line);
+	}
+
+	/**
+	 * Checks and forgets the messages logged so far.
+	 * @param messages the expected messages
+	 */
+	private static void expect(final String... messages) {
+		for (int i = 0; i < messages.length; i++) {
+			Assert.equal(messages[i], i < LOGGED.size() ? LOGGED.get(i) : null,
+					"Message " + i);
+		}
+		Assert.equal(messages.length, LOGGED.size(), "Messages logged");
+		LOGGED.clear();
+	}
+}
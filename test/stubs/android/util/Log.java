@@ -0,0 +1,191 @@
+package android.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * A stand-in for android.util.Log so the library can be tested on a plain
+ * JVM. Entries are handed to the installed {@link Listener}, if any, and
+ * are otherwise discarded without allocating.
+ */
+public final class Log {
+
+	/** Priority constant for verbose entries. */
+	public static final int VERBOSE = 2;
+	/** Priority constant for debug entries. */
+	public static final int DEBUG = 3;
+	/** Priority constant for info entries. */
+	public static final int INFO = 4;
+	/** Priority constant for warn entries. */
+	public static final int WARN = 5;
+	/** Priority constant for error entries. */
+	public static final int ERROR = 6;
+	/** Priority constant for assert entries. */
+	public static final int ASSERT = 7;
+
+	/** Receives the entries written through this class. */
+	public interface Listener {
+		/**
+		 * @param priority the priority of the entry
+		 * @param tag the tag of the entry
+		 * @param msg the message of the entry
+		 */
+		void println(int priority, String tag, String msg);
+	}
+
+	/** The listener receiving entries or null. */
+	private static volatile Listener sListener;
+
+	/**
+	 * No instances.
+	 */
+	private Log() {
+	}
+
+	/**
+	 * @param listener the listener receiving entries or null for none
+	 */
+	public static void setListener(final Listener listener) {
+		sListener = listener;
+	}
+
+	/**
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 * @return the number of characters written
+	 */
+	public static int v(final String tag, final String msg) {
+		return println(VERBOSE, tag, msg);
+	}
+
+	/**
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 * @param tr the throwable to log
+	 * @return the number of characters written
+	 */
+	public static int v(final String tag, final String msg,
+			final Throwable tr) {
+		return println(VERBOSE, tag, msg + '\n' + getStackTraceString(tr));
+	}
+
+	/**
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 * @return the number of characters written
+	 */
+	public static int d(final String tag, final String msg) {
+		return println(DEBUG, tag, msg);
+	}
+
+	/**
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 * @param tr the throwable to log
+	 * @return the number of characters written
+	 */
+	public static int d(final String tag, final String msg,
+			final Throwable tr) {
+		return println(DEBUG, tag, msg + '\n' + getStackTraceString(tr));
+	}
+
+	/**
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 * @return the number of characters written
+	 */
+	public static int i(final String tag, final String msg) {
+		return println(INFO, tag, msg);
+	}
+
+	/**
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 * @param tr the throwable to log
+	 * @return the number of characters written
+	 */
+	public static int i(final String tag, final String msg,
+			final Throwable tr) {
+		return println(INFO, tag, msg + '\n' + getStackTraceString(tr));
+	}
+
+	/**
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 * @return the number of characters written
+	 */
+	public static int w(final String tag, final String msg) {
+		return println(WARN, tag, msg);
+	}
+
+	/**
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 * @param tr the throwable to log
+	 * @return the number of characters written
+	 */
+	public static int w(final String tag, final String msg,
+			final Throwable tr) {
+		return println(WARN, tag, msg + '\n' + getStackTraceString(tr));
+	}
+
+	/**
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 * @return the number of characters written
+	 */
+	public static int e(final String tag, final String msg) {
+		return println(ERROR, tag, msg);
+	}
+
+	/**
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 * @param tr the throwable to log
+	 * @return the number of characters written
+	 */
+	public static int e(final String tag, final String msg,
+			final Throwable tr) {
+		return println(ERROR, tag, msg + '\n' + getStackTraceString(tr));
+	}
+
+	/**
+	 * Like the real default, only INFO and above are loggable.
+	 * @param tag the tag to check
+	 * @param level the priority to check
+	 * @return true if the priority is at least INFO
+	 */
+	public static boolean isLoggable(final String tag, final int level) {
+		return level >= INFO;
+	}
+
+	/**
+	 * @param tr the throwable to render
+	 * @return the stack trace of the throwable or "" if it is null
+	 */
+	public static String getStackTraceString(final Throwable tr) {
+		if (tr == null) {
+			return "";
+		}
+		StringWriter trace = new StringWriter();
+		PrintWriter writer = new PrintWriter(trace);
+		tr.printStackTrace(writer);
+		writer.flush();
+		return trace.toString();
+	}
+
+	/**
+	 * @param priority the priority of the entry
+	 * @param tag the tag of the entry
+	 * @param msg the message of the entry
+	 * @return the number of characters written
+	 */
+	public static int println(final int priority, final String tag,
+			final String msg) {
+		Listener listener = sListener;
+		if (listener != null) {
+			listener.println(priority, tag, msg);
+		}
+		return msg.length();
+	}
+}
@@ -0,0 +1,234 @@
+package org.slf4j.impl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * The build step for tokenized logging. Scans Java sources for calls to
+ * trace, debug, info, warn and error whose first argument is a string
+ * literal, or literals joined with '+', and writes each template with its
+ * id to a dictionary file in the format read by {@link TemplateTokens}.
+ * </p>
+ * <p>
+ * Templates whose ids collide are left out so they are logged as plain
+ * text rather than decoded wrongly.
+ * </p>
+ *
+ * <pre>
+ * java org.slf4j.impl.TemplateDictionaryBuilder &lt;dictionary&gt; &lt;dir&gt;...
+ * </pre>
+ */
+public final class TemplateDictionaryBuilder {
+
+	/** A string literal. */
+	private static final String LITERAL = "\"(?:[^\"\\\\\\n]|\\\\.)*\"";
+
+	/** A log call with a literal template as the first argument. */
+	private static final Pattern LOG_CALL = Pattern.compile(
+			"\\.(?:trace|debug|info|warn|error)\\s*\\(\\s*((?:" + LITERAL
+			+ "\\s*\\+\\s*)*" + LITERAL + ")\\s*[,)]");
+
+	/** One literal within a template. */
+	private static final Pattern ONE_LITERAL = Pattern.compile(LITERAL);
+
+	/** The templates found so far by id. */
+	private final Map<Integer, String> templates =
+			new TreeMap<Integer, String>();
+
+	/** The ids shared by more than one template. */
+	private final Set<Integer> collisions = new HashSet<Integer>();
+
+	/**
+	 * No instances except through main.
+	 */
+	private TemplateDictionaryBuilder() {
+	}
+
+	/**
+	 * @param args the dictionary file followed by source directories
+	 * @throws IOException if reading or writing fails
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: TemplateDictionaryBuilder"
+					+ " <dictionary> <source dir>...");
+			System.exit(1);
+		}
+		TemplateDictionaryBuilder builder = new TemplateDictionaryBuilder();
+		for (int i = 1; i < args.length; i++) {
+			for (String dir : args[i].split(File.pathSeparator)) {
+				builder.scan(new File(dir));
+			}
+		}
+		builder.write(new File(args[0]));
+	}
+
+	/**
+	 * Scans a file or all Java files below a directory.
+	 * @param file the file or directory
+	 * @throws IOException if reading fails
+	 */
+	void scan(final File file) throws IOException {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				for (File child : children) {
+					scan(child);
+				}
+			}
+		} else if (file.getName().endsWith(".java")) {
+			Matcher call = LOG_CALL.matcher(read(file));
+			while (call.find()) {
+				add(template(call.group(1)));
+			}
+		}
+	}
+
+	/**
+	 * @param template a template found in the sources
+	 */
+	void add(final String template) {
+		Integer id = TemplateTokens.idOf(template);
+		String known = templates.get(id);
+		if (known == null) {
+			templates.put(id, template);
+		} else if (!known.equals(template)) {
+			collisions.add(id);
+		}
+	}
+
+	/**
+	 * Writes the dictionary sorted by id.
+	 * @param dictionary the file to write
+	 * @throws IOException if writing fails
+	 */
+	void write(final File dictionary) throws IOException {
+		Writer out = new OutputStreamWriter(
+				new FileOutputStream(dictionary), "UTF-8");
+		try {
+			int count = 0;
+			for (Map.Entry<Integer, String> entry : templates.entrySet()) {
+				if (collisions.contains(entry.getKey())) {
+					System.err.println("Id collision, not tokenizing: "
+							+ entry.getValue());
+					continue;
+				}
+				out.write(String.format("%08x\t%s\n", entry.getKey(),
+						TemplateTokens.escape(entry.getValue())));
+				count++;
+			}
+			System.out.println("Wrote " + count + " templates to "
+					+ dictionary);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * @param file the file to read
+	 * @return the contents of the file
+	 * @throws IOException if reading fails
+	 */
+	private static String read(final File file) throws IOException {
+		Reader in = new InputStreamReader(new FileInputStream(file), "UTF-8");
+		try {
+			StringBuilder text = new StringBuilder();
+			char[] chunk = new char[8192];
+			int count;
+			while ((count = in.read(chunk)) > 0) {
+				text.append(chunk, 0, count);
+			}
+			return text.toString();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * @param literals one or more literals joined with '+'
+	 * @return the value of the joined literals
+	 */
+	static String template(final String literals) {
+		StringBuilder value = new StringBuilder();
+		Matcher literal = ONE_LITERAL.matcher(literals);
+		while (literal.find()) {
+			unescapeJava(value, literal.group(), 1, literal.end()
+					- literal.start() - 1);
+		}
+		return value.toString();
+	}
+
+	/**
+	 * Appends the value of the body of a Java string literal.
+	 * @param value the buffer to append to
+	 * @param text the text holding the literal
+	 * @param start the start of the body
+	 * @param end the end of the body
+	 */
+	private static void unescapeJava(final StringBuilder value,
+			final String text, final int start, final int end) {
+		int i = start;
+		while (i < end) {
+			char c = text.charAt(i++);
+			if (c != '\\') {
+				value.append(c);
+				continue;
+			}
+			c = text.charAt(i++);
+			switch (c) {
+			case 'n':
+				value.append('\n');
+				break;
+			case 't':
+				value.append('\t');
+				break;
+			case 'r':
+				value.append('\r');
+				break;
+			case 'b':
+				value.append('\b');
+				break;
+			case 'f':
+				value.append('\f');
+				break;
+			case 'u':
+				while (text.charAt(i) == 'u') {
+					i++;
+				}
+				value.append((char) Integer.parseInt(
+						text.substring(i, i + 4), 16));
+				i += 4;
+				break;
+			default:
+				if (c >= '0' && c <= '7') {
+					int code = c - '0';
+					int max = 2;
+					if (c > '3') {
+						max = 1;
+					}
+					while (max-- > 0 && i < end && text.charAt(i) >= '0'
+							&& text.charAt(i) <= '7') {
+						code = code * 8 + text.charAt(i++) - '0';
+					}
+					value.append((char) code);
+				} else {
+					value.append(c);
+				}
+				break;
+			}
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package org.slf4j.impl;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.helpers.MessageFormatter;
+
+/**
+ * <p>
+ * Expands tokenized log records back into messages using the dictionary
+ * written by {@link TemplateDictionaryBuilder}. Reads the log from a file or
+ * standard input, for instance the output of adb logcat, and writes it with
+ * every record expanded. Lines without a known record are copied as is.
+ * </p>
+ * <p>
+ * With -stats the number of bytes read and written is reported, which is the
+ * saving tokenized logging gives for that log.
+ * </p>
+ *
+ * <pre>
+ * java org.slf4j.impl.TokenDecoder [-stats] &lt;dictionary&gt; [log]
+ * </pre>
+ */
+public final class TokenDecoder {
+
+	/** The flag asking for statistics. */
+	private static final String STATS = "-stats";
+
+	/** The templates by id. */
+	private final Map<Integer, String> templates;
+
+	/**
+	 * @param dictionary the templates by id
+	 */
+	TokenDecoder(final Map<Integer, String> dictionary) {
+		this.templates = dictionary;
+	}
+
+	/**
+	 * @param args the arguments
+	 * @throws IOException if reading or writing fails
+	 */
+	public static void main(final String[] args) throws IOException {
+		int first = 0;
+		boolean stats = false;
+		if (args.length > 0 && STATS.equals(args[0])) {
+			stats = true;
+			first++;
+		}
+		if (args.length - first < 1 || args.length - first > 2) {
+			System.err.println("Usage: TokenDecoder [-stats] <dictionary>"
+					+ " [log]");
+			System.exit(1);
+		}
+		TokenDecoder decoder = new TokenDecoder(
+				load(new FileInputStream(args[first])));
+		InputStream log = System.in;
+		if (args.length - first == 2) {
+			log = new FileInputStream(args[first + 1]);
+		}
+		BufferedReader in =
+				new BufferedReader(new InputStreamReader(log, "UTF-8"));
+		PrintWriter out = new PrintWriter(
+				new OutputStreamWriter(System.out, "UTF-8"));
+		long bytesIn = 0;
+		long bytesOut = 0;
+		String line;
+		while ((line = in.readLine()) != null) {
+			String expanded = decoder.expand(line);
+			out.println(expanded);
+			if (stats) {
+				bytesIn += line.getBytes("UTF-8").length + 1;
+				bytesOut += expanded.getBytes("UTF-8").length + 1;
+			}
+		}
+		out.flush();
+		in.close();
+		if (stats && bytesOut > 0) {
+			System.err.println("Tokenized bytes: " + bytesIn
+					+ ", plain bytes: " + bytesOut + ", saved: "
+					+ (100 * (bytesOut - bytesIn) / bytesOut) + "%");
+		}
+	}
+
+	/**
+	 * @param in the dictionary
+	 * @return the templates by id
+	 * @throws IOException if reading fails
+	 */
+	static Map<Integer, String> load(final InputStream in)
+			throws IOException {
+		Map<Integer, String> dictionary = new HashMap<Integer, String>();
+		BufferedReader reader =
+				new BufferedReader(new InputStreamReader(in, "UTF-8"));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int tab = line.indexOf('\t');
+				if (tab == TemplateTokens.ID_DIGITS) {
+					dictionary.put(TemplateTokens.parseId(
+							line.substring(0, tab)),
+							TemplateTokens.unescape(
+									line.substring(tab + 1)));
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return dictionary;
+	}
+
+	/**
+	 * @param line a log line
+	 * @return the line with its record expanded, if it has one
+	 */
+	String expand(final String line) {
+		int start = line.indexOf(TemplateTokens.RECORD_START);
+		while (start >= 0) {
+			String template = templateAt(line, start);
+			if (template != null) {
+				List<String> arguments = new ArrayList<String>();
+				parseArguments(line, start + 1 + TemplateTokens.ID_DIGITS,
+						arguments);
+				return line.substring(0, start) + MessageFormatter.arrayFormat(
+						template, arguments.toArray()).getMessage();
+			}
+			start = line.indexOf(TemplateTokens.RECORD_START, start + 1);
+		}
+		return line;
+	}
+
+	/**
+	 * @param line a log line
+	 * @param start the index of a possible record start
+	 * @return the template of the record or null if there is none there
+	 */
+	private String templateAt(final String line, final int start) {
+		int end = start + 1 + TemplateTokens.ID_DIGITS;
+		if (end > line.length() || (end < line.length()
+				&& line.charAt(end) != TemplateTokens.SEPARATOR)) {
+			return null;
+		}
+		try {
+			return templates.get(TemplateTokens.parseId(
+					line.substring(start + 1, end)));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param line a log line
+	 * @param from the index following the record id
+	 * @param arguments the list to add the arguments to
+	 */
+	private static void parseArguments(final String line, final int from,
+			final List<String> arguments) {
+		StringBuilder argument = null;
+		for (int i = from; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == TemplateTokens.SEPARATOR) {
+				if (argument != null) {
+					arguments.add(argument.toString());
+				}
+				argument = new StringBuilder();
+			} else if (c == TemplateTokens.ESCAPE && i + 1 < line.length()) {
+				argument.append(TemplateTokens.unescape(line.charAt(++i)));
+			} else {
+				argument.append(c);
+			}
+		}
+		if (argument != null) {
+			arguments.add(argument.toString());
+		}
+	}
+}